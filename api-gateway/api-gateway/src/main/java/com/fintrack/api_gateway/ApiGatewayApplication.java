@@ -1,11 +1,17 @@
 package com.fintrack.api_gateway;
 
+import com.fintrack.common.config.FaultInjectionEndpoint;
+import com.fintrack.common.config.FaultInjector;
+import com.fintrack.common.config.LoadBalancerConfig;
+import com.fintrack.common.service.IdentitySigner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import({IdentitySigner.class, LoadBalancerConfig.class, FaultInjector.class, FaultInjectionEndpoint.class})  // Shared code (fintrack-common)
 
 public class ApiGatewayApplication {
 
@@ -0,0 +1,30 @@
+package com.fintrack.api_gateway.config;
+
+import com.fintrack.api_gateway.filter.JwtAuthenticationFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@Configuration
+public class RateLimitConfig {
+
+    // Limit authenticated callers per user (identity set by JwtAuthenticationFilter),
+    // anonymous ones (login, register) per client address
+    @Bean
+    public KeyResolver userKeyResolver() {
+        return exchange -> {
+            String userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTR);
+            if (userId != null) {
+                return Mono.just("user:" + userId);
+            }
+
+            // The connection's address: X-Forwarded-For is set by the client and would
+            // let it pick a fresh bucket per request
+            InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+            return Mono.just("ip:" + (remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown"));
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.fintrack.api_gateway.controller;
+
+import com.fintrack.api_gateway.service.DashboardService;
+import com.fintrack.api_gateway.service.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Composite endpoints served by the gateway itself (not routed, so the token
+// is verified here rather than by JwtAuthenticationFilter)
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @GetMapping
+    public Mono<ResponseEntity<Map<String, Object>>> getDashboard(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Missing bearer token")));
+        }
+
+        Claims claims;
+        try {
+            claims = jwtVerifier.verify(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token")));
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        if (userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Token has no user id")));
+        }
+
+        return dashboardService.getDashboard(authHeader, userId, claims.getSubject())
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,35 @@
+package com.fintrack.api_gateway.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Local answers for routes whose circuit breaker is open, timed out or whose
+// retries ran out (forward:/fallback/{service}), so callers fail fast
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    @Value("${gateway.fallback.retry-after-seconds:10}")
+    private int retryAfterSeconds;
+
+    @RequestMapping("/{service}")
+    public Mono<ResponseEntity<Map<String, Object>>> fallback(@PathVariable String service) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", service + " is temporarily unavailable, please retry later");
+        body.put("service", service);
+        body.put("fallback", true);
+
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(body));
+    }
+}
@@ -0,0 +1,63 @@
+package com.fintrack.api_gateway.controller;
+
+import com.fintrack.api_gateway.service.RateLimitGossip;
+import com.fintrack.api_gateway.service.RequestCoalescer;
+import com.fintrack.api_gateway.service.ResponseCache;
+import com.fintrack.api_gateway.service.RetryBudget;
+import com.fintrack.common.config.InstanceLoadTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// /actuator/gatewaymetrics - gateway-side metrics (cache, coalescing, rate limiting,
+// instance load, retry budget); /actuator/gatewaymetrics/{section} for one of them.
+// Served on the management port only (management.server.*, loopback by default).
+@Component
+@Endpoint(id = "gatewaymetrics")
+public class GatewayMetricsEndpoint {
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private RateLimitGossip rateLimitGossip;
+
+    @Autowired
+    private InstanceLoadTracker instanceLoadTracker;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    @ReadOperation
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        sections().forEach((name, section) -> metrics.put(name, section.get()));
+        return metrics;
+    }
+
+    // null (404) for an unknown section
+    @ReadOperation
+    public Map<String, Object> section(@Selector String section) {
+        Supplier<Map<String, Object>> supplier = sections().get(section);
+        return supplier != null ? supplier.get() : null;
+    }
+
+    private Map<String, Supplier<Map<String, Object>>> sections() {
+        Map<String, Supplier<Map<String, Object>>> sections = new LinkedHashMap<>();
+        sections.put("cache", responseCache::getMetrics);
+        sections.put("coalescing", requestCoalescer::getMetrics);
+        sections.put("rate-limit", rateLimitGossip::getMetrics);
+        sections.put("instances", instanceLoadTracker::getMetrics);
+        sections.put("retry-budget", retryBudget::getMetrics);
+        return sections;
+    }
+}
@@ -0,0 +1,35 @@
+package com.fintrack.api_gateway.controller;
+
+import com.fintrack.api_gateway.service.LatencyRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// /actuator/latency - per-route and per (route, status, instance) percentiles of the
+// last window; /actuator/latency/slow-requests - requests above the slow percentile
+// of their route, most recent first. Management port only (see GatewayMetricsEndpoint).
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private static final String SLOW_REQUESTS = "slow-requests";
+
+    @Autowired
+    private LatencyRecorder latencyRecorder;
+
+    @ReadOperation
+    public Map<String, Object> histograms() {
+        return latencyRecorder.getHistograms();
+    }
+
+    // null (404) for anything else
+    @ReadOperation
+    public List<LatencyRecorder.SlowRequest> slowRequests(@Selector String name) {
+        return SLOW_REQUESTS.equals(name) ? latencyRecorder.getSlowRequests() : null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.fintrack.api_gateway.controller;
+
+import com.fintrack.api_gateway.service.RateLimitGossip;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Receives rate limiter consumption from the other gateway replicas
+@RestController
+public class RateLimitGossipController {
+
+    @Autowired
+    private RateLimitGossip rateLimitGossip;
+
+    @PostMapping("/internal/rate-limit/gossip")
+    public ResponseEntity<Void> receive(
+            @RequestHeader(value = RateLimitGossip.SECRET_HEADER, required = false) String secret,
+            @RequestBody Map<String, Long> consumed) {
+        if (!rateLimitGossip.receive(secret, consumed)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
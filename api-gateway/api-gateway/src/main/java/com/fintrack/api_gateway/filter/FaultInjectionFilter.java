@@ -0,0 +1,68 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.common.config.FaultInjector;
+import com.fintrack.common.config.FaultInjector.Fault;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// Applies FaultInjector rules just before the upstream call, inside the route's
+// circuit breaker, time limiter and retries, so an injected fault looks to them
+// like a slow, failing or disconnecting upstream. Rules are keyed by route id.
+@Component
+@ConditionalOnProperty(name = "fault-injection.enabled", havingValue = "true")
+public class FaultInjectionFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Fault fault = faultInjector.decide(route != null ? route.getId() : FaultInjector.ALL_TARGETS);
+        if (fault == null) {
+            return chain.filter(exchange);
+        }
+
+        Mono<Void> outcome;
+        if (fault.isReset()) {
+            outcome = Mono.error(new IOException("Connection reset (injected fault)"));
+        } else if (fault.getErrorStatus() > 0) {
+            outcome = Mono.defer(() -> writeError(exchange.getResponse(), fault.getErrorStatus()));
+        } else {
+            outcome = chain.filter(exchange);
+        }
+
+        return fault.getDelayMs() > 0
+                ? Mono.delay(Duration.ofMillis(fault.getDelayMs())).then(outcome)
+                : outcome;
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    // FaultInjector only accepts 100-599; HttpStatusCode also covers codes without an HttpStatus constant
+    private Mono<Void> writeError(ServerHttpResponse response, int status) {
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = "{\"error\":\"Injected fault\"}".getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.common.service.IdentitySigner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+// Forwards the identity JwtAuthenticationFilter authenticated as signed X-User-* headers.
+// Runs right after the upstream URL is resolved, so the signature covers the method and
+// path the service will actually see, and again on every retry with a fresh timestamp.
+@Component
+public class IdentityHeadersFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private IdentitySigner identitySigner;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTR);
+        String email = exchange.getAttribute(JwtAuthenticationFilter.USER_EMAIL_ATTR);
+        URI upstream = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (userId == null || email == null || upstream == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String method = request.getMethod().name();
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        String signature = identitySigner.sign(userId, email, timestamp, method, upstream.getRawPath());
+
+        ServerHttpRequest signed = request.mutate()
+                .headers(headers -> {
+                    headers.set(IdentitySigner.USER_ID_HEADER, userId);
+                    headers.set(IdentitySigner.USER_EMAIL_HEADER, email);
+                    headers.set(IdentitySigner.TIMESTAMP_HEADER, timestamp);
+                    headers.set(IdentitySigner.SIGNATURE_HEADER, signature);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(signed).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.api_gateway.service.JwtVerifier;
+import com.fintrack.common.service.IdentitySigner;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+// Authenticates every routed request once, at the edge. Valid tokens are verified
+// locally (no call to auth-service) and the caller's identity is kept in exchange
+// attributes; IdentityHeadersFilter forwards it as signed X-User-* headers once the
+// upstream request is known. Anything a client sends under those names is dropped first.
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    private static final List<String> IDENTITY_HEADERS = List.of(
+            IdentitySigner.USER_ID_HEADER,
+            IdentitySigner.USER_EMAIL_HEADER,
+            IdentitySigner.TIMESTAMP_HEADER,
+            IdentitySigner.SIGNATURE_HEADER);
+
+    // Exchange attribute with the authenticated user id (attributes are shared by
+    // every mutated copy of the exchange, unlike the request headers)
+    public static final String USER_ID_ATTR = JwtAuthenticationFilter.class.getName() + ".userId";
+    public static final String USER_EMAIL_ATTR = JwtAuthenticationFilter.class.getName() + ".email";
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Value("${gateway.auth.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.auth.public-paths}")
+    private Set<String> publicPaths;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpRequest.Builder forwarded = request.mutate()
+                .headers(headers -> IDENTITY_HEADERS.forEach(headers::remove));
+
+        String path = request.getPath().value();
+        if (!enabled || request.getMethod() == HttpMethod.OPTIONS || publicPaths.contains(path)) {
+            return chain.filter(exchange.mutate().request(forwarded.build()).build());
+        }
+
+        String token = extractToken(request);
+        if (token == null) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "Missing bearer token");
+        }
+
+        Claims claims;
+        try {
+            claims = jwtVerifier.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        String email = claims.getSubject();
+        if (userId == null) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "Token has no user id");
+        }
+
+        // Endpoints that still take the user from the request must name the caller
+        String requestedUserId = requestedUserId(request, path);
+        if (requestedUserId != null && !requestedUserId.equals(userId.toString())) {
+            return reject(exchange, HttpStatus.FORBIDDEN, "Token does not belong to the requested user");
+        }
+
+        exchange.getAttributes().put(USER_ID_ATTR, userId.toString());
+        exchange.getAttributes().put(USER_EMAIL_ATTR, email);
+
+        return chain.filter(exchange.mutate().request(forwarded.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private String extractToken(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        // EventSource cannot set headers, so the alert stream may pass the token as a parameter
+        List<MediaType> accept = request.getHeaders().getAccept();
+        if (accept.contains(MediaType.TEXT_EVENT_STREAM)) {
+            return request.getQueryParams().getFirst("access_token");
+        }
+        return null;
+    }
+
+    // ?userId=... (budgets) or /user/{userId}/... (transactions)
+    private String requestedUserId(ServerHttpRequest request, String path) {
+        String fromQuery = request.getQueryParams().getFirst("userId");
+        if (fromQuery != null) {
+            return fromQuery;
+        }
+
+        int index = path.indexOf("/user/");
+        if (index < 0) {
+            return null;
+        }
+        int start = index + "/user/".length();
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.api_gateway.service.LatencyRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+
+// Times every routed request end to end (including filters that answer at the
+// gateway, such as cache hits and rejections) and records it in LatencyRecorder
+@Component
+public class LatencyFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private LatencyRecorder latencyRecorder;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, signal, System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private void record(ServerWebExchange exchange, SignalType signal, long durationNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        String status = signal == SignalType.CANCEL ? "cancelled"
+                : statusCode != null ? String.valueOf(statusCode.value())
+                : signal == SignalType.ON_ERROR ? "error" : "200";
+
+        // Set by the load balancer filter once an instance is chosen; absent when
+        // the gateway answered by itself
+        URI upstream = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        String instance = upstream != null && upstream.getHost() != null
+                ? upstream.getHost() + ":" + upstream.getPort() : "gateway";
+
+        // Path only: query strings may carry tokens (access_token on the alert stream)
+        latencyRecorder.record(routeId,
+                exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getPath().value(),
+                status,
+                instance,
+                durationNanos);
+    }
+}
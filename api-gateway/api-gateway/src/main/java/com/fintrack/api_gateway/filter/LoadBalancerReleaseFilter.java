@@ -0,0 +1,39 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.common.config.InstanceLoadTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Releases the in-flight slot of the chosen instance however the attempt ends.
+// The load balancer lifecycle never completes a request that is cancelled (client
+// gone, timeout, circuit breaker), which would leave the instance looking busy
+// forever. Runs around the load balancer filter, so once per (retried) attempt.
+@Component
+public class LoadBalancerReleaseFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private InstanceLoadTracker instanceLoadTracker;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doFinally(signal -> {
+            Response<ServiceInstance> lbResponse =
+                    exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            instanceLoadTracker.release(lbResponse);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
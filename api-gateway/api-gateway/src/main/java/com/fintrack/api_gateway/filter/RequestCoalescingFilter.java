@@ -0,0 +1,149 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.api_gateway.service.RequestCoalescer;
+import com.fintrack.api_gateway.service.RequestCoalescer.SharedResponse;
+import com.fintrack.api_gateway.service.ResponseCache;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Collapses identical concurrent GETs (same user, same URI) on routes with
+// metadata.coalesce=true into one upstream call whose 200 response is copied to
+// every waiter. A waiter that is not served within max-wait, or whose leader got
+// an error or an oversized body, simply makes its own upstream call.
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final String COALESCE_METADATA = "coalesce";
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Value("${gateway.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.coalescing.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${gateway.coalescing.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTR);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || userId == null || request.getMethod() != HttpMethod.GET
+                || route == null || !isEnabled(route)) {
+            return chain.filter(exchange);
+        }
+
+        String uri = request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+        String key = RequestCoalescer.key(userId, uri);
+
+        Sinks.One<SharedResponse> leaderSink = Sinks.one();
+        Sinks.One<SharedResponse> inFlight = requestCoalescer.join(key, leaderSink);
+        if (inFlight != null) {
+            return waitFor(inFlight, exchange, chain, route.getId());
+        }
+        return lead(key, leaderSink, exchange, chain);
+    }
+
+    @Override
+    public int getOrder() {
+        // After the response cache, before NettyWriteResponseFilter writes the response
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private Mono<Void> lead(String key, Sinks.One<SharedResponse> leaderSink,
+                            ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || status.value() != 200) {
+                    requestCoalescer.recordNotShareable();
+                    requestCoalescer.complete(key, leaderSink, null);
+                    return super.writeWith(body);
+                }
+
+                return DataBufferUtils.join(body)
+                        .flatMap(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+
+                            SharedResponse shared = bytes.length <= maxBodyBytes
+                                    ? new SharedResponse(200, ResponseCache.replayableHeaders(getHeaders()), bytes)
+                                    : null;
+                            requestCoalescer.complete(key, leaderSink, shared);
+                            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        })
+                        .switchIfEmpty(Mono.defer(() -> getDelegate().writeWith(Flux.empty())));
+            }
+        };
+
+        // Errors, cancellation or a response that was never written release the waiters
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> requestCoalescer.complete(key, leaderSink, null));
+    }
+
+    private Mono<Void> waitFor(Sinks.One<SharedResponse> inFlight, ServerWebExchange exchange,
+                               GatewayFilterChain chain, String routeId) {
+        return inFlight.asMono()
+                .timeout(Duration.ofMillis(maxWaitMs))
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    requestCoalescer.recordWaitTimeout();
+                    return Mono.just(Optional.empty());
+                })
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        return chain.filter(exchange);
+                    }
+                    requestCoalescer.recordSaved(routeId);
+                    return write(exchange.getResponse(), shared.get());
+                });
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        shared.getHeaders().forEach((name, values) -> {
+            if (!response.getHeaders().containsKey(name)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        response.getHeaders().set("X-Coalesced", "true");
+        response.setStatusCode(HttpStatus.valueOf(shared.getStatus()));
+        response.getHeaders().setContentLength(shared.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.getBody())));
+    }
+
+    private boolean isEnabled(Route route) {
+        Object coalesce = route.getMetadata().get(COALESCE_METADATA);
+        return coalesce != null && Boolean.parseBoolean(coalesce.toString());
+    }
+}
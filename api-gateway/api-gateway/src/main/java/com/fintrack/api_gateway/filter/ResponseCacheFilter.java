@@ -0,0 +1,184 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.api_gateway.service.ResponseCache;
+import com.fintrack.api_gateway.service.ResponseCache.CachedResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+// Serves repeated GETs of routes with a cache-ttl-seconds metadata entry from
+// ResponseCache instead of the database behind them. Every 200 gets an ETag from
+// the body hash, so clients revalidating with If-None-Match get a bodyless 304.
+// Any write by a user (POST/PUT/PATCH/DELETE) drops that user's cached responses.
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String TTL_METADATA = "cache-ttl-seconds";
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Value("${gateway.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.cache.max-body-bytes:262144}")
+    private int maxBodyBytes;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTR);
+        if (!enabled || userId == null) {
+            return chain.filter(exchange);
+        }
+
+        HttpMethod method = request.getMethod();
+        if (method == HttpMethod.POST || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
+            // Before, so no stale entry is served during the write; after, so nothing
+            // read while it was in progress survives it
+            responseCache.invalidateUser(userId);
+            return chain.filter(exchange).doFinally(signal -> responseCache.invalidateUser(userId));
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        long ttlMillis = route != null ? ttlMillis(route) : 0;
+        if (method != HttpMethod.GET || ttlMillis <= 0) {
+            return chain.filter(exchange);
+        }
+
+        String uri = request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+        String key = ResponseCache.key(route.getId(), userId, uri);
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+
+        CachedResponse cached = responseCache.get(route.getId(), userId, key);
+        if (cached != null) {
+            return writeCached(exchange.getResponse(), cached, ifNoneMatch);
+        }
+
+        long version = responseCache.currentVersion();
+        ServerHttpResponse original = exchange.getResponse();
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || status.value() != 200) {
+                    return super.writeWith(body);
+                }
+
+                return DataBufferUtils.join(body)
+                        .flatMap(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+
+                            String etag = etag(bytes);
+                            if (bytes.length <= maxBodyBytes) {
+                                responseCache.put(key, userId, new CachedResponse(200, ResponseCache.replayableHeaders(getHeaders()),
+                                        bytes, etag, version, System.currentTimeMillis() + ttlMillis));
+                            }
+
+                            setValidators(getHeaders(), etag, "MISS");
+                            if (matches(ifNoneMatch, etag)) {
+                                return notModified(getDelegate());
+                            }
+                            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        })
+                        .switchIfEmpty(Mono.defer(() -> getDelegate().writeWith(Flux.empty())));
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Must wrap the response before NettyWriteResponseFilter writes it, and run
+        // before request coalescing so only cache misses are coalesced
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, List<String> ifNoneMatch) {
+        cached.getHeaders().forEach((name, values) -> {
+            if (!response.getHeaders().containsKey(name)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        setValidators(response.getHeaders(), cached.getEtag(), "HIT");
+
+        if (matches(ifNoneMatch, cached.getEtag())) {
+            responseCache.recordNotModified();
+            return notModified(response);
+        }
+
+        response.setStatusCode(HttpStatus.valueOf(cached.getStatus()));
+        response.getHeaders().setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private Mono<Void> notModified(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        return response.setComplete();
+    }
+
+    private void setValidators(HttpHeaders headers, String etag, String cacheStatus) {
+        headers.setETag(etag);
+        headers.set("X-Cache", cacheStatus);
+        if (!headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+            // Per-user data: browsers may keep it but must revalidate, proxies must not
+            headers.setCacheControl("private, no-cache");
+        }
+    }
+
+    private boolean matches(List<String> ifNoneMatch, String etag) {
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+    }
+
+    private long ttlMillis(Route route) {
+        Object ttl = route.getMetadata().get(TTL_METADATA);
+        if (ttl == null) {
+            return 0;
+        }
+        try {
+            return (long) (Double.parseDouble(ttl.toString()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.api_gateway.service.RetryBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// RetryBudget route filter, placed right after the Retry filter so it runs on
+// every attempt. First attempts feed the route's budget; a retry the budget
+// cannot cover fails immediately (503) instead of reaching the upstream again,
+// which ends the retry sequence and lets the circuit breaker's fallback answer.
+@Component
+public class RetryBudgetGatewayFilterFactory extends AbstractGatewayFilterFactory<RetryBudgetGatewayFilterFactory.Config> {
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    public RetryBudgetGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("percent", "minRetriesPerSecond");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+
+            // Set by the Retry filter once the first attempt has completed
+            boolean isRetry = exchange.getAttribute(RetryGatewayFilterFactory.RETRY_ITERATION_KEY) != null;
+            if (!isRetry) {
+                retryBudget.recordRequest(routeId, config.getPercent(), config.getMinRetriesPerSecond());
+            } else if (!retryBudget.tryRetry(routeId, config.getMinRetriesPerSecond())) {
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Retry budget exhausted for route " + routeId));
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    public static class Config {
+        private double percent = 20;
+        private double minRetriesPerSecond = 3;
+
+        public double getPercent() {
+            return percent;
+        }
+
+        public void setPercent(double percent) {
+            this.percent = percent;
+        }
+
+        public double getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(double minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.fintrack.api_gateway.service;
+
+import com.fintrack.common.service.IdentitySigner;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Home screen data in one request: profile, balance, transaction summary and budget
+// summary are fetched concurrently, so the response takes as long as the slowest
+// leg rather than the sum. A leg that fails or exceeds its timeout is reported in
+// "unavailable" and the rest of the dashboard is still returned.
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private IdentitySigner identitySigner;
+
+    @Value("${gateway.dashboard.leg-timeout-ms:2000}")
+    private long legTimeoutMs;
+
+    private WebClient webClient;
+
+    @PostConstruct
+    public void init() {
+        webClient = webClientBuilder.build();
+    }
+
+    public Mono<Map<String, Object>> getDashboard(String authHeader, Long userId, String email) {
+        Mono<Map<String, Object>> profile = leg("profile",
+                "lb://auth-service/api/auth/profile", authHeader, userId, email);
+        Mono<Map<String, Object>> balance = leg("balance",
+                "lb://transaction-service/api/transactions/user/" + userId + "/balance", authHeader, userId, email);
+        Mono<Map<String, Object>> transactionSummary = leg("transactionSummary",
+                "lb://transaction-service/api/transactions/user/" + userId + "/summary", authHeader, userId, email);
+        Mono<Map<String, Object>> budgetSummary = leg("budgetSummary",
+                "lb://budget-service/api/budgets/summary", authHeader, userId, email);
+
+        return Mono.zip(profile, balance, transactionSummary, budgetSummary)
+                .map(legs -> {
+                    Map<String, Object> dashboard = new HashMap<>();
+                    List<String> unavailable = new ArrayList<>();
+                    merge(dashboard, unavailable, "profile", legs.getT1());
+                    merge(dashboard, unavailable, "balance", legs.getT2());
+                    merge(dashboard, unavailable, "transactionSummary", legs.getT3());
+                    merge(dashboard, unavailable, "budgetSummary", legs.getT4());
+                    dashboard.put("userId", userId);
+                    dashboard.put("partial", !unavailable.isEmpty());
+                    dashboard.put("unavailable", unavailable);
+                    return dashboard;
+                });
+    }
+
+    // Never fails: an error or timeout becomes a marker entry. Each leg gets its own
+    // identity signature, bound to that leg's method and path.
+    private Mono<Map<String, Object>> leg(String name, String uri, String authHeader, Long userId, String email) {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        String signature = identitySigner.sign(userId.toString(), email, timestamp,
+                HttpMethod.GET.name(), URI.create(uri).getRawPath());
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    headers.set(HttpHeaders.AUTHORIZATION, authHeader);
+                    headers.set(IdentitySigner.USER_ID_HEADER, userId.toString());
+                    headers.set(IdentitySigner.USER_EMAIL_HEADER, email);
+                    headers.set(IdentitySigner.TIMESTAMP_HEADER, timestamp);
+                    headers.set(IdentitySigner.SIGNATURE_HEADER, signature);
+                })
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(Duration.ofMillis(legTimeoutMs))
+                .onErrorResume(e -> {
+                    log.warn("Dashboard leg {} failed: {}", name, e.toString());
+                    return Mono.just(failed(e));
+                })
+                .defaultIfEmpty(failed(null));
+    }
+
+    private Map<String, Object> failed(Throwable e) {
+        Map<String, Object> marker = new HashMap<>();
+        marker.put("_failed", e != null && e.getMessage() != null ? e.getMessage() : "No response");
+        return marker;
+    }
+
+    private void merge(Map<String, Object> dashboard, List<String> unavailable, String name, Map<String, Object> leg) {
+        if (leg.containsKey("_failed")) {
+            unavailable.add(name);
+            dashboard.put(name, null);
+        } else {
+            dashboard.put(name, leg);
+        }
+    }
+}
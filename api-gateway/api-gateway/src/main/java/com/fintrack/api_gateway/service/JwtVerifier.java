@@ -0,0 +1,62 @@
+package com.fintrack.api_gateway.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Verifies auth-service tokens locally (same HMAC secret). The key and parser are
+// built once; recently verified tokens are cached so repeats skip the HMAC.
+@Component
+public class JwtVerifier {
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${gateway.auth.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    private JwtParser parser;
+
+    // Keyed by the whole token so a cached entry never vouches for another payload
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+    }
+
+    // Claims of a valid, unexpired, unrevoked token; throws JwtException otherwise
+    public Claims verify(String token) {
+        Claims claims = verifiedTokens.get(token);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                verifiedTokens.clear();
+            }
+            verifiedTokens.put(token, claims);
+        } else if (claims.getExpiration() != null && claims.getExpiration().before(new Date())) {
+            verifiedTokens.remove(token);
+            throw new JwtException("Token expired");
+        }
+
+        if (revokedTokenRegistry.isRevoked(claims.getId())) {
+            throw new JwtException("Token revoked");
+        }
+        return claims;
+    }
+}
@@ -0,0 +1,258 @@
+package com.fintrack.api_gateway.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Gateway request latency in HDR histograms, per (route, status, upstream instance)
+// and per route. Recording is wait-free (HdrHistogram Recorder); every window the
+// interval histograms are rotated, so percentiles describe the last window and
+// totals the process lifetime. Percentiles are published as Micrometer gauges
+// (Prometheus). Requests slower than the route's slow-percentile over the last
+// window are kept in a bounded ring buffer for inspection, without user ids (numeric
+// path segments are masked).
+@Component
+public class LatencyRecorder {
+
+    // Microseconds, up to one hour, 2 significant digits (~1% error)
+    private static final long HIGHEST_TRACKABLE_MICROS = 3_600_000_000L;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.latency.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${gateway.latency.slow-percentile:99.0}")
+    private double slowPercentile;
+
+    @Value("${gateway.latency.slow-fallback-ms:1000}")
+    private long slowFallbackMs;
+
+    @Value("${gateway.latency.slow-min-samples:100}")
+    private long slowMinSamples;
+
+    @Value("${gateway.latency.slow-buffer-size:256}")
+    private int slowBufferSize;
+
+    private final Map<String, LatencyHistogram> byRouteStatusInstance = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> byRoute = new ConcurrentHashMap<>();
+
+    private SlowRequest[] slowRequests;
+    private final AtomicLong slowRequestCount = new AtomicLong();
+
+    private Disposable rotation;
+
+    @PostConstruct
+    public void init() {
+        slowRequests = new SlowRequest[slowBufferSize];
+        rotation = Flux.interval(Duration.ofSeconds(windowSeconds))
+                .subscribe(tick -> rotate());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rotation != null) {
+            rotation.dispose();
+        }
+    }
+
+    public void record(String routeId, String method, String path, String status, String instance,
+                       long durationNanos) {
+        long micros = Math.min(Math.max(durationNanos / 1000, 1), HIGHEST_TRACKABLE_MICROS);
+
+        LatencyHistogram route = byRoute.computeIfAbsent(routeId,
+                id -> register(new LatencyHistogram(), Tags.of("route", id, "status", "all", "instance", "all")));
+        route.recorder.recordValue(micros);
+
+        String key = routeId + "|" + status + "|" + instance;
+        byRouteStatusInstance.computeIfAbsent(key,
+                k -> register(new LatencyHistogram(), Tags.of("route", routeId, "status", status, "instance", instance)))
+                .recorder.recordValue(micros);
+
+        if (micros >= route.slowThresholdMicros) {
+            long index = slowRequestCount.getAndIncrement();
+            slowRequests[(int) (index % slowRequests.length)] = new SlowRequest(
+                    Instant.now().toString(), routeId, method, maskIds(path), status, instance, micros / 1000.0);
+        }
+    }
+
+    public Map<String, Object> getHistograms() {
+        Map<String, Object> routes = new HashMap<>();
+        byRoute.forEach((routeId, histogram) -> {
+            Map<String, Object> route = histogram.summary();
+            route.put("slowThresholdMs", histogram.slowThresholdMicros / 1000.0);
+            routes.put(routeId, route);
+        });
+
+        Map<String, Object> detailed = new HashMap<>();
+        byRouteStatusInstance.forEach((key, histogram) -> detailed.put(key, histogram.summary()));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("windowSeconds", windowSeconds);
+        result.put("routes", routes);
+        result.put("byRouteStatusInstance", detailed);
+        return result;
+    }
+
+    // Most recent first
+    public List<SlowRequest> getSlowRequests() {
+        long count = slowRequestCount.get();
+        int size = (int) Math.min(count, slowRequests.length);
+        List<SlowRequest> recent = new ArrayList<>(size);
+        for (long i = count - 1; i >= count - size; i--) {
+            SlowRequest request = slowRequests[(int) (i % slowRequests.length)];
+            if (request != null) {
+                recent.add(request);
+            }
+        }
+        return recent;
+    }
+
+    // Numeric path segments are ids (often user ids): /user/42/balance -> /user/{id}/balance
+    static String maskIds(String path) {
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private void rotate() {
+        byRouteStatusInstance.values().forEach(LatencyHistogram::rotate);
+        byRoute.values().forEach(histogram -> {
+            histogram.rotate();
+            Histogram window = histogram.lastWindow;
+            histogram.slowThresholdMicros = window.getTotalCount() >= slowMinSamples
+                    ? window.getValueAtPercentile(slowPercentile)
+                    : slowFallbackMs * 1000;
+        });
+    }
+
+    private LatencyHistogram register(LatencyHistogram histogram, Tags tags) {
+        histogram.slowThresholdMicros = slowFallbackMs * 1000;
+        for (double percentile : new double[]{50.0, 90.0, 99.0, 99.9}) {
+            Gauge.builder("gateway.request.latency.percentile", histogram, h -> h.windowPercentileMs(percentile))
+                    .tags(tags).tag("percentile", String.valueOf(percentile / 100))
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("gateway.request.latency.max", histogram, h -> h.lastWindow.getMaxValue() / 1000.0)
+                .tags(tags).baseUnit("milliseconds").register(meterRegistry);
+        FunctionCounter.builder("gateway.request.count", histogram, h -> h.totalCount())
+                .tags(tags).register(meterRegistry);
+        return histogram;
+    }
+
+    private static final class LatencyHistogram {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private volatile Histogram lastWindow = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram recycled;
+        private volatile long slowThresholdMicros;
+
+        // Called by the single rotation thread only
+        synchronized void rotate() {
+            Histogram interval = recorder.getIntervalHistogram(recycled);
+            synchronized (total) {
+                total.add(interval);
+            }
+            recycled = lastWindow;
+            lastWindow = interval;
+        }
+
+        double windowPercentileMs(double percentile) {
+            return lastWindow.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        long totalCount() {
+            synchronized (total) {
+                return total.getTotalCount();
+            }
+        }
+
+        Map<String, Object> summary() {
+            Histogram window = lastWindow;
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("windowCount", window.getTotalCount());
+            summary.put("p50Ms", window.getValueAtPercentile(50.0) / 1000.0);
+            summary.put("p90Ms", window.getValueAtPercentile(90.0) / 1000.0);
+            summary.put("p99Ms", window.getValueAtPercentile(99.0) / 1000.0);
+            summary.put("p999Ms", window.getValueAtPercentile(99.9) / 1000.0);
+            summary.put("maxMs", window.getMaxValue() / 1000.0);
+            synchronized (total) {
+                summary.put("totalCount", total.getTotalCount());
+                summary.put("totalP99Ms", total.getValueAtPercentile(99.0) / 1000.0);
+            }
+            return summary;
+        }
+    }
+
+    public static final class SlowRequest {
+        private final String timestamp;
+        private final String routeId;
+        private final String method;
+        private final String path;
+        private final String status;
+        private final String instance;
+        private final double durationMs;
+
+        public SlowRequest(String timestamp, String routeId, String method, String path, String status,
+                           String instance, double durationMs) {
+            this.timestamp = timestamp;
+            this.routeId = routeId;
+            this.method = method;
+            this.path = path;
+            this.status = status;
+            this.instance = instance;
+            this.durationMs = durationMs;
+        }
+
+        public String getTimestamp() {
+            return timestamp;
+        }
+
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getInstance() {
+            return instance;
+        }
+
+        public double getDurationMs() {
+            return durationMs;
+        }
+    }
+}
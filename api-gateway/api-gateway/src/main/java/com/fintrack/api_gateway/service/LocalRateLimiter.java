@@ -0,0 +1,321 @@
+package com.fintrack.api_gateway.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory RateLimiter for RequestRateLimiter routes (no Redis). Each (route, user)
+// key has a token bucket, plus an optional route-wide bucket protecting the upstream.
+// Buckets are GCRA cells: one AtomicLong "theoretical arrival time" updated by CAS,
+// so a decision is lock-free and answers synchronously. Buckets that have refilled
+// completely are swept, which bounds memory to recently active keys. When max-keys
+// is reached anyway, new keys share one overflow bucket per route (with the per-user
+// limits) until there is room again - they are never let through unlimited.
+// Consumption is gossiped to the other gateway replicas (RateLimitGossip), so a
+// user's limit holds approximately across all of them.
+@Component
+@Primary
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final String ROUTE_WIDE_KEY = "*";
+
+    @Value("${gateway.rate-limit.default.capacity:60}")
+    private int defaultCapacity;
+
+    @Value("${gateway.rate-limit.default.refill-per-second:10}")
+    private double defaultRefillPerSecond;
+
+    @Value("${gateway.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${gateway.rate-limit.sweep-interval-ms:30000}")
+    private long sweepIntervalMs;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    // One per route (not counted in max-keys), used by keys that found the map full
+    private final Map<String, Bucket> overflowBuckets = new ConcurrentHashMap<>();
+
+    private volatile long lastInlineSweepNanos;
+
+    // Local consumption per key since the last gossip round
+    private final Map<String, LongAdder> unsentConsumption = new ConcurrentHashMap<>();
+
+    private Disposable sweeper;
+
+    // Metrics
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    private final LongAdder rejectedByRoute = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder remoteConsumption = new LongAdder();
+
+    public LocalRateLimiter(ConfigurationService configurationService) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+    }
+
+    @PostConstruct
+    public void init() {
+        sweeper = Flux.interval(Duration.ofMillis(sweepIntervalMs))
+                .subscribe(tick -> evictIdleBuckets());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, new Config());
+        int capacity = config.getCapacity() > 0 ? config.getCapacity() : defaultCapacity;
+        double refillPerSecond = config.getRefillPerSecond() > 0 ? config.getRefillPerSecond() : defaultRefillPerSecond;
+        long now = System.nanoTime();
+
+        String userKey = routeId + "|" + id;
+        Bucket userBucket = bucket(userKey, capacity, refillPerSecond, now);
+        if (userBucket != null) {
+            long wait = userBucket.tryAcquire(now);
+            if (wait > 0) {
+                rejectedByUser.increment();
+                return Mono.just(new Response(false, headers(capacity, refillPerSecond, 0, wait)));
+            }
+            if (!userBucket.overflow) {
+                recordConsumption(userKey);
+            }
+        }
+
+        if (config.getRouteCapacity() > 0) {
+            String routeKey = routeId + "|" + ROUTE_WIDE_KEY;
+            Bucket routeBucket = bucket(routeKey, config.getRouteCapacity(), config.getRouteRefillPerSecond(), now);
+            if (routeBucket != null) {
+                long wait = routeBucket.tryAcquire(now);
+                if (wait > 0) {
+                    rejectedByRoute.increment();
+                    return Mono.just(new Response(false, headers(capacity, refillPerSecond, 0, wait)));
+                }
+                if (!routeBucket.overflow) {
+                    recordConsumption(routeKey);
+                }
+            }
+        }
+
+        allowed.increment();
+        long remaining = userBucket != null ? userBucket.remaining(now) : capacity;
+        return Mono.just(new Response(true, headers(capacity, refillPerSecond, remaining, 0)));
+    }
+
+    // Consumption since the last call, for gossip to the other replicas
+    public Map<String, Long> drainConsumption() {
+        Map<String, Long> consumed = new HashMap<>();
+        unsentConsumption.forEach((key, count) -> {
+            long sum = count.sumThenReset();
+            if (sum > 0) {
+                consumed.put(key, sum);
+            }
+        });
+        unsentConsumption.values().removeIf(count -> count.sum() == 0);
+        return consumed;
+    }
+
+    // Apply consumption reported by another replica (never above an empty bucket)
+    public void applyRemoteConsumption(Map<String, Long> consumed) {
+        long now = System.nanoTime();
+        consumed.forEach((key, count) -> {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                Config config = getConfig().getOrDefault(routeIdOf(key), new Config());
+                bucket = key.endsWith("|" + ROUTE_WIDE_KEY)
+                        ? bucket(key, config.getRouteCapacity(), config.getRouteRefillPerSecond(), now)
+                        : bucket(key, config.getCapacity() > 0 ? config.getCapacity() : defaultCapacity,
+                                config.getRefillPerSecond() > 0 ? config.getRefillPerSecond() : defaultRefillPerSecond, now);
+            }
+            // The overflow bucket is shared by unrelated keys: a remote user's
+            // consumption must not drain it
+            if (bucket != null && !bucket.overflow && count > 0) {
+                bucket.consume(count, now);
+                remoteConsumption.add(count);
+            }
+        });
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rejectedByUser", rejectedByUser.sum());
+        metrics.put("rejectedByRoute", rejectedByRoute.sum());
+        metrics.put("trackedKeys", buckets.size());
+        metrics.put("maxKeys", maxKeys);
+        metrics.put("evictedIdleBuckets", evicted.sum());
+        metrics.put("overflowRequests", overflowed.sum());
+        metrics.put("remoteConsumption", remoteConsumption.sum());
+        return metrics;
+    }
+
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> {
+            if (bucket.isFull(now)) {
+                evicted.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Bucket bucket(String key, int capacity, double refillPerSecond, long now) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            return null;
+        }
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys && !makeRoom(now)) {
+                // Memory bound wins, but the key is still limited: it shares its route's overflow bucket
+                overflowed.increment();
+                return overflowBuckets.computeIfAbsent(routeIdOf(key) + "|" + capacity + "/" + refillPerSecond,
+                        k -> new Bucket(capacity, refillPerSecond, now, true));
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, refillPerSecond, now, false));
+        }
+        return bucket;
+    }
+
+    // Inline sweep when the map is full, at most once per second
+    private boolean makeRoom(long now) {
+        if (now - lastInlineSweepNanos > 1_000_000_000L) {
+            lastInlineSweepNanos = now;
+            evictIdleBuckets();
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    private void recordConsumption(String key) {
+        unsentConsumption.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private String routeIdOf(String key) {
+        int separator = key.lastIndexOf('|');
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    private Map<String, String> headers(int capacity, double refillPerSecond, long remaining, long waitNanos) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-RateLimit-Burst-Capacity", String.valueOf(capacity));
+        headers.put("X-RateLimit-Replenish-Rate", String.valueOf(refillPerSecond));
+        headers.put("X-RateLimit-Remaining", String.valueOf(remaining));
+        if (waitNanos > 0) {
+            headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L)));
+        }
+        return headers;
+    }
+
+    // Token bucket as a GCRA cell: a request is allowed while the theoretical arrival
+    // time is at most (capacity - 1) intervals ahead of now, and pushes it one interval
+    private static final class Bucket {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLong theoreticalArrival;
+        private final boolean overflow;
+
+        Bucket(int capacity, double refillPerSecond, long now, boolean overflow) {
+            this.overflow = overflow;
+            this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+            this.toleranceNanos = intervalNanos * (capacity - 1);
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        // 0 if a token was taken, otherwise nanos until one is available
+        long tryAcquire(long now) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long start = Math.max(current, now);
+                if (start - now > toleranceNanos) {
+                    return start - now - toleranceNanos;
+                }
+                if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        void consume(long count, long now) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long start = Math.max(current, now);
+                long next = Math.min(start + count * intervalNanos, now + toleranceNanos + intervalNanos);
+                if (next <= current || theoreticalArrival.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long remaining(long now) {
+            long backlog = Math.max(theoreticalArrival.get(), now) - now;
+            return Math.max(0, (toleranceNanos + intervalNanos - backlog) / intervalNanos);
+        }
+
+        boolean isFull(long now) {
+            return theoreticalArrival.get() <= now;
+        }
+    }
+
+    // Per-route settings: filters[n].args.local-rate-limiter.*
+    public static class Config {
+        private int capacity;
+        private double refillPerSecond;
+        private int routeCapacity;
+        private double routeRefillPerSecond;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getRouteCapacity() {
+            return routeCapacity;
+        }
+
+        public void setRouteCapacity(int routeCapacity) {
+            this.routeCapacity = routeCapacity;
+        }
+
+        public double getRouteRefillPerSecond() {
+            return routeRefillPerSecond;
+        }
+
+        public void setRouteRefillPerSecond(double routeRefillPerSecond) {
+            this.routeRefillPerSecond = routeRefillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.fintrack.api_gateway.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Shares rate limiter consumption between gateway replicas. Every interval each
+// replica posts what it consumed per key since the last round to the other
+// api-gateway instances registered in Eureka, which charge it to their buckets.
+// Limits are therefore approximate (off by at most one interval of traffic), but
+// no request ever waits on another replica.
+@Component
+public class RateLimitGossip {
+
+    public static final String SECRET_HEADER = "X-Gossip-Secret";
+
+    @Autowired
+    private LocalRateLimiter rateLimiter;
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Value("${spring.application.name}")
+    private String serviceId;
+
+    @Value("${eureka.instance.instance-id}")
+    private String selfInstanceId;
+
+    @Value("${gateway.rate-limit.gossip.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.rate-limit.gossip.interval-ms:1000}")
+    private long intervalMs;
+
+    @Value("${gateway.rate-limit.gossip.secret}")
+    private String secret;
+
+    // Peers are addressed directly, not through the load balancer
+    private final WebClient webClient = WebClient.create();
+
+    private Disposable rounds;
+
+    // Metrics
+    private final LongAdder roundsSent = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder rejectedMessages = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        rounds = Flux.interval(Duration.ofMillis(intervalMs))
+                .onBackpressureDrop()
+                .concatMap(tick -> sendRound().onErrorResume(e -> Mono.empty()), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rounds != null) {
+            rounds.dispose();
+        }
+    }
+
+    // Returns false if the sender did not present the shared secret
+    public boolean receive(String presentedSecret, Map<String, Long> consumed) {
+        if (presentedSecret == null || !MessageDigest.isEqual(
+                presentedSecret.getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8))) {
+            rejectedMessages.increment();
+            return false;
+        }
+        messagesReceived.increment();
+        rateLimiter.applyRemoteConsumption(consumed);
+        return true;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>(rateLimiter.getMetrics());
+        metrics.put("gossipEnabled", enabled);
+        metrics.put("gossipRounds", roundsSent.sum());
+        metrics.put("gossipMessagesSent", messagesSent.sum());
+        metrics.put("gossipSendFailures", sendFailures.sum());
+        metrics.put("gossipMessagesReceived", messagesReceived.sum());
+        metrics.put("gossipMessagesRejected", rejectedMessages.sum());
+        return metrics;
+    }
+
+    private Mono<Void> sendRound() {
+        Map<String, Long> consumed = rateLimiter.drainConsumption();
+        if (consumed.isEmpty()) {
+            return Mono.empty();
+        }
+
+        List<ServiceInstance> peers = discoveryClient.getInstances(serviceId).stream()
+                .filter(instance -> !selfInstanceId.equals(instance.getInstanceId()))
+                .toList();
+        if (peers.isEmpty()) {
+            return Mono.empty();
+        }
+
+        roundsSent.increment();
+        return Flux.fromIterable(peers)
+                .flatMap(peer -> webClient.post()
+                        .uri(peer.getUri() + "/internal/rate-limit/gossip")
+                        .header(SECRET_HEADER, secret)
+                        .bodyValue(consumed)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(Duration.ofMillis(intervalMs))
+                        .doOnSuccess(response -> messagesSent.increment())
+                        .onErrorResume(e -> {
+                            // Lost consumption only makes the peer slightly more lenient
+                            sendFailures.increment();
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+}
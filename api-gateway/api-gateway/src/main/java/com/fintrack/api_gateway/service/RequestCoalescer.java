@@ -0,0 +1,101 @@
+package com.fintrack.api_gateway.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-flight GETs by (user, URI). The first request for a key becomes the leader and
+// goes downstream; identical requests arriving meanwhile wait on the leader's sink
+// and get a copy of its response instead of making their own upstream call.
+@Component
+public class RequestCoalescer {
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder savedUpstreamCalls = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+    private final LongAdder notShareable = new LongAdder();
+    private final Map<String, LongAdder> savedByRoute = new ConcurrentHashMap<>();
+
+    public static String key(String userId, String uri) {
+        return userId + "|" + uri;
+    }
+
+    // Null if the caller is now the leader for this key (it must call complete),
+    // otherwise the sink of the request already in flight
+    public Sinks.One<SharedResponse> join(String key, Sinks.One<SharedResponse> leaderSink) {
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, leaderSink);
+        if (existing == null) {
+            leaders.increment();
+        }
+        return existing;
+    }
+
+    // Leader finished: waiters get the response, or nothing (they then go downstream)
+    public void complete(String key, Sinks.One<SharedResponse> leaderSink, SharedResponse response) {
+        inFlight.remove(key, leaderSink);
+        if (response != null) {
+            leaderSink.tryEmitValue(response);
+        } else {
+            leaderSink.tryEmitEmpty();
+        }
+    }
+
+    public void recordSaved(String routeId) {
+        savedUpstreamCalls.increment();
+        savedByRoute.computeIfAbsent(routeId, id -> new LongAdder()).increment();
+    }
+
+    public void recordWaitTimeout() {
+        waitTimeouts.increment();
+    }
+
+    public void recordNotShareable() {
+        notShareable.increment();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> byRoute = new HashMap<>();
+        savedByRoute.forEach((routeId, saved) -> byRoute.put(routeId, saved.sum()));
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("inFlight", inFlight.size());
+        metrics.put("leaders", leaders.sum());
+        metrics.put("savedUpstreamCalls", savedUpstreamCalls.sum());
+        metrics.put("savedByRoute", byRoute);
+        metrics.put("waitTimeouts", waitTimeouts.sum());
+        metrics.put("notShareable", notShareable.sum());
+        return metrics;
+    }
+
+    public static final class SharedResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        public SharedResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.fintrack.api_gateway.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Size-bounded cache of downstream GET responses, keyed by route, user and URI. Lookups
+// never lock (it is called on the event loop): entries live in a concurrent map and,
+// over max-entries, the least recently used of a small sample is evicted.
+// Invalidation is per user and O(1): a write records a sequence number for the user,
+// every entry remembers the sequence at which its request started, and entries that
+// started before the user's last write stop matching (they then age out).
+@Component
+public class ResponseCache {
+
+    // Connection-level or per-response headers that must not be replayed
+    private static final Set<String> UNREPLAYABLE_HEADERS = Set.of(
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.DATE.toLowerCase(),
+            HttpHeaders.SET_COOKIE.toLowerCase(),
+            HttpHeaders.ETAG.toLowerCase(),
+            "x-cache");
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    @Value("${gateway.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${gateway.cache.max-tracked-users:100000}")
+    private int maxTrackedUsers;
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    // Sequence of each user's last write. Markers older than the longest TTL can no
+    // longer matter and are dropped; the floor stands in for every dropped marker.
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Invalidation> userInvalidations = new ConcurrentHashMap<>();
+    private volatile long invalidationFloor;
+    private volatile long maxTtlMillis;
+    private volatile long lastSweepMillis;
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder fullInvalidations = new LongAdder();
+    private final Map<String, LongAdder[]> routeCounters = new ConcurrentHashMap<>();  // {hits, misses}
+
+    public static String key(String routeId, String userId, String uri) {
+        return routeId + "|" + userId + "|" + uri;
+    }
+
+    // Copy of a downstream response's headers that is safe to send again
+    public static HttpHeaders replayableHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (!UNREPLAYABLE_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return headers;
+    }
+
+    // Version to store a response under; read before the request goes downstream
+    public long currentVersion() {
+        return sequence.get();
+    }
+
+    public CachedResponse get(String routeId, String userId, String key) {
+        long now = System.currentTimeMillis();
+        CachedResponse response = entries.get(key);
+        if (response != null && (response.expiresAt < now || !isCurrent(userId, response.version))) {
+            entries.remove(key, response);
+            response = null;
+        }
+
+        LongAdder[] counters = routeCounters.computeIfAbsent(routeId, id -> new LongAdder[]{new LongAdder(), new LongAdder()});
+        if (response != null) {
+            response.lastAccessMillis = now;
+            hits.increment();
+            counters[0].increment();
+        } else {
+            misses.increment();
+            counters[1].increment();
+        }
+        return response;
+    }
+
+    // Ignored if the user wrote something since the request started
+    public void put(String key, String userId, CachedResponse response) {
+        if (!isCurrent(userId, response.version)) {
+            return;
+        }
+        long ttlMillis = response.expiresAt - System.currentTimeMillis();
+        if (ttlMillis > maxTtlMillis) {
+            maxTtlMillis = ttlMillis;
+        }
+
+        entries.put(key, response);
+        while (entries.size() > maxEntries) {
+            evictOne();
+        }
+    }
+
+    // Drop every cached response of this user (called before and after each write)
+    public void invalidateUser(String userId) {
+        Invalidation invalidation = new Invalidation(sequence.incrementAndGet(), System.currentTimeMillis());
+        userInvalidations.merge(userId, invalidation,
+                (previous, latest) -> latest.sequence > previous.sequence ? latest : previous);
+        invalidations.increment();
+        if (userInvalidations.size() > maxTrackedUsers) {
+            sweepInvalidations();
+        }
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+
+        Map<String, Object> routes = new HashMap<>();
+        routeCounters.forEach((routeId, counters) -> {
+            long routeHits = counters[0].sum();
+            long routeLookups = routeHits + counters[1].sum();
+            Map<String, Object> route = new HashMap<>();
+            route.put("hits", routeHits);
+            route.put("misses", counters[1].sum());
+            route.put("hitRatio", routeLookups == 0 ? 0.0 : (double) routeHits / routeLookups);
+            routes.put(routeId, route);
+        });
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("hits", hitCount);
+        metrics.put("misses", misses.sum());
+        metrics.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        metrics.put("notModified", notModified.sum());
+        metrics.put("evictions", evictions.sum());
+        metrics.put("userInvalidations", invalidations.sum());
+        metrics.put("fullInvalidations", fullInvalidations.sum());
+        metrics.put("trackedUsers", userInvalidations.size());
+        metrics.put("entries", entries.size());
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("routes", routes);
+        return metrics;
+    }
+
+    private boolean isCurrent(String userId, long version) {
+        Invalidation invalidation = userInvalidations.get(userId);
+        long invalidatedAt = invalidation != null ? invalidation.sequence : 0;
+        return version >= Math.max(invalidatedAt, invalidationFloor);
+    }
+
+    // Approximate LRU: the least recently used (or any expired) entry of a small sample
+    private void evictOne() {
+        long now = System.currentTimeMillis();
+        String victim = null;
+        long oldestAccess = Long.MAX_VALUE;
+        int sampled = 0;
+        for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+            CachedResponse response = entry.getValue();
+            if (response.expiresAt < now) {
+                victim = entry.getKey();
+                break;
+            }
+            if (response.lastAccessMillis < oldestAccess) {
+                victim = entry.getKey();
+                oldestAccess = response.lastAccessMillis;
+            }
+            if (++sampled >= EVICTION_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        if (victim != null && entries.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    // Over max-tracked-users (at most once per second): forget markers older than the
+    // longest TTL, raising the floor to cover them. If that is not enough, every
+    // current entry is invalidated at once and all markers are dropped.
+    private synchronized void sweepInvalidations() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweepMillis < 1000 && userInvalidations.size() <= 2L * maxTrackedUsers) {
+            return;
+        }
+        lastSweepMillis = now;
+
+        long cutoff = now - maxTtlMillis;
+        long floor = invalidationFloor;
+        for (Map.Entry<String, Invalidation> entry : userInvalidations.entrySet()) {
+            Invalidation invalidation = entry.getValue();
+            if (invalidation.timestampMillis < cutoff && userInvalidations.remove(entry.getKey(), invalidation)) {
+                floor = Math.max(floor, invalidation.sequence);
+            }
+        }
+        invalidationFloor = floor;
+
+        if (userInvalidations.size() > maxTrackedUsers) {
+            invalidationFloor = sequence.incrementAndGet();
+            userInvalidations.clear();
+            fullInvalidations.increment();
+        }
+    }
+
+    private static final class Invalidation {
+        private final long sequence;
+        private final long timestampMillis;
+
+        Invalidation(long sequence, long timestampMillis) {
+            this.sequence = sequence;
+            this.timestampMillis = timestampMillis;
+        }
+    }
+
+    public static final class CachedResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final String etag;
+        private final long version;
+        private final long expiresAt;
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+
+        public CachedResponse(int status, HttpHeaders headers, byte[] body, String etag, long version, long expiresAt) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.etag = etag;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
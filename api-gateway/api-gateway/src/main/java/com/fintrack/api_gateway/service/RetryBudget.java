@@ -0,0 +1,85 @@
+package com.fintrack.api_gateway.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caps retries per route at a percentage of its traffic, so retries cannot
+// multiply load on an upstream that is already failing. Every first attempt
+// deposits percent/100 of a retry into the route's balance, a small reserve
+// accrues per second for low-traffic routes, and each retry withdraws one.
+@Component
+public class RetryBudget {
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    public void recordRequest(String routeId, double percent, double minRetriesPerSecond) {
+        budget(routeId).deposit(percent / 100.0, minRetriesPerSecond, System.nanoTime());
+    }
+
+    public boolean tryRetry(String routeId, double minRetriesPerSecond) {
+        return budget(routeId).withdraw(minRetriesPerSecond, System.nanoTime());
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        budgets.forEach((routeId, budget) -> {
+            Map<String, Object> route = new HashMap<>();
+            route.put("requests", budget.requests.sum());
+            route.put("retriesAllowed", budget.retriesAllowed.sum());
+            route.put("retriesDenied", budget.retriesDenied.sum());
+            route.put("balance", budget.balance());
+            metrics.put(routeId, route);
+        });
+        return metrics;
+    }
+
+    private Budget budget(String routeId) {
+        return budgets.computeIfAbsent(routeId, id -> new Budget(System.nanoTime()));
+    }
+
+    private static final class Budget {
+        private static final double MAX_BALANCE = 10;  // Retries that can be saved up
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retriesAllowed = new LongAdder();
+        private final LongAdder retriesDenied = new LongAdder();
+        private double balance;
+        private long lastAccrualNanos;
+
+        Budget(long now) {
+            this.lastAccrualNanos = now;
+        }
+
+        synchronized void deposit(double amount, double minRetriesPerSecond, long now) {
+            requests.increment();
+            accrue(minRetriesPerSecond, now);
+            balance = Math.min(MAX_BALANCE, balance + amount);
+        }
+
+        synchronized boolean withdraw(double minRetriesPerSecond, long now) {
+            accrue(minRetriesPerSecond, now);
+            if (balance >= 1) {
+                balance -= 1;
+                retriesAllowed.increment();
+                return true;
+            }
+            retriesDenied.increment();
+            return false;
+        }
+
+        synchronized double balance() {
+            return balance;
+        }
+
+        private void accrue(double minRetriesPerSecond, long now) {
+            if (now > lastAccrualNanos) {
+                balance = Math.min(MAX_BALANCE, balance + (now - lastAccrualNanos) / 1e9 * minRetriesPerSecond);
+                lastAccrualNanos = now;
+            }
+        }
+    }
+}
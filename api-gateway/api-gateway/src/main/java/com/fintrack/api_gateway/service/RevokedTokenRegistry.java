@@ -0,0 +1,66 @@
+package com.fintrack.api_gateway.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Local copy of auth-service's revoked access token ids, refreshed in the background
+// so verifying a token at the edge never waits on auth-service
+@Component
+public class RevokedTokenRegistry {
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Value("${gateway.auth.revocation-sync-ms:5000}")
+    private long syncIntervalMs;
+
+    private volatile Set<String> revokedTokenIds = Set.of();
+
+    private Disposable sync;
+
+    @PostConstruct
+    public void init() {
+        WebClient client = webClientBuilder.build();
+
+        sync = Flux.interval(Duration.ZERO, Duration.ofMillis(syncIntervalMs))
+                .concatMap(tick -> client.get()
+                        .uri("lb://auth-service/api/auth/revoked")
+                        .retrieve()
+                        .bodyToMono(Map.class)
+                        .timeout(Duration.ofMillis(syncIntervalMs))
+                        // Keep the last known list while auth-service is unreachable
+                        .onErrorResume(e -> Mono.empty()))
+                .subscribe(this::update);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sync != null) {
+            sync.dispose();
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revokedTokenIds.contains(tokenId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void update(Map<?, ?> body) {
+        Object tokenIds = body.get("tokenIds");
+        if (tokenIds instanceof List) {
+            revokedTokenIds = Set.copyOf((List<String>) tokenIds);
+        }
+    }
+}
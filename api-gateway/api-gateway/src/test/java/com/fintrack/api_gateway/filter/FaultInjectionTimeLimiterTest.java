@@ -0,0 +1,119 @@
+package com.fintrack.api_gateway.filter;
+
+import com.fintrack.common.config.FaultInjector;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Chaos check of the budget route: with a fixed 3 s latency injected in front of a
+// healthy upstream, the 1 s time limiter must cut the call and the fallback 503 must
+// arrive within that bound - not after the injected latency
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.discovery.locator.enabled=false",
+        "management.server.port=0",
+        "gateway.auth.enabled=false",
+        "gateway.auth.revocation-sync-ms=3600000",
+        "gateway.rate-limit.gossip.enabled=false",
+        "gateway.cache.enabled=false",
+        "gateway.coalescing.enabled=false",
+        "fault-injection.enabled=true",
+        "resilience4j.timelimiter.instances.budgetServiceBreaker.timeout-duration=1s"
+})
+class FaultInjectionTimeLimiterTest {
+
+    private static final long TIME_LIMIT_MS = 1000;
+    private static final long INJECTED_LATENCY_MS = 3000;
+
+    private static HttpServer upstream;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @BeforeAll
+    static void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            byte[] body = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    // With Eureka off, lb://budget-service resolves through the simple discovery client to the stub
+    @DynamicPropertySource
+    static void upstreamInstance(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.budget-service[0].uri",
+                () -> "http://127.0.0.1:" + upstream.getAddress().getPort());
+    }
+
+    @AfterEach
+    void clearFaults() {
+        faultInjector.clear();
+    }
+
+    @Test
+    void upstreamIsReachableWithoutFaults() {
+        client().get().uri("/api/budgets/health")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void injectedLatencyTripsTheTimeLimiterIntoTheFallback() {
+        FaultInjector.Rule rule = new FaultInjector.Rule();
+        rule.setDistribution("FIXED");
+        rule.setLatencyMs(INJECTED_LATENCY_MS);
+        faultInjector.setRule("budget-service", rule);
+
+        long start = System.nanoTime();
+        client().get().uri("/api/budgets/health")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER)
+                .expectBody()
+                .jsonPath("$.fallback").isEqualTo(true)
+                .jsonPath("$.service").isEqualTo("budget-service");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs >= TIME_LIMIT_MS - 100, "fallback before the time limit: " + elapsedMs + " ms");
+        assertTrue(elapsedMs < TIME_LIMIT_MS + 1000, "fallback after " + elapsedMs + " ms");
+    }
+
+    private WebTestClient client() {
+        return WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofMillis(INJECTED_LATENCY_MS * 2))
+                .build();
+    }
+}
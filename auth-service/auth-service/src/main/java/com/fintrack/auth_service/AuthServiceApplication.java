@@ -1,11 +1,16 @@
 package com.fintrack.auth_service;
 
+import com.fintrack.common.config.FaultInjectionConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling  // Revocation list sync (TokenService)
+@Import(FaultInjectionConfig.class)  // Shared code (fintrack-common)
 
 public class AuthServiceApplication {
 
@@ -3,6 +3,7 @@ package com.fintrack.auth_service.config;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -10,7 +11,8 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
@@ -19,48 +21,75 @@ public class JwtUtil {
     private String secret;
 
     @Value("${jwt.expiration}")
-    private Long expiration;
+    private Long expiration;  // Access token lifetime - keep short, clients renew with a refresh token
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    @Autowired
+    private RevokedTokenSet revokedTokenSet;
 
     private SecretKey key;
 
+    // Thread-safe and reusable - built once instead of per call
+    private JwtParser parser;
+
+    // Recently verified tokens -> claims, so repeat validations skip the HMAC and JSON parse.
+    // Keyed by the whole token (not just the signature) so a cached signature can never
+    // vouch for a different payload. Entries are dropped once the token expires.
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
     }
 
-    // Extract username from token
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    // Verify signature, expiry and revocation exactly once; throws JwtException if the token is not valid
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.isExpired(now)) {
+                verifiedTokens.remove(token);
+                throw new JwtException("Token expired");
+            }
+            return checkNotRevoked(cached);
+        }
 
-    // Extract user ID from token
-    public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        Claims claims = extractAllClaims(token);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.getIssuedAt(),
+                claims.getExpiration());
+
+        cacheVerified(token, verified, now);
+        return checkNotRevoked(verified);
     }
 
-    // Extract expiration date from token
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // Access token lifetime in milliseconds
+    public long getExpiration() {
+        return expiration;
     }
 
-    // Extract specific claim
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    // Extract username from token
+    public String extractUsername(String token) {
+        return verify(token).getSubject();
     }
 
-    // Extract all claims
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // Extract user ID from token
+    public Long extractUserId(String token) {
+        return verify(token).getUserId();
     }
 
-    // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Full signature check and JSON parse - only on a verified-cache miss
+    private Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     // Generate token for user
@@ -73,6 +102,7 @@ public class JwtUtil {
     // Create token with claims
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
@@ -83,17 +113,40 @@ public class JwtUtil {
 
     // Validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            return verify(token).getSubject().equals(userDetails.getUsername());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
     // Simple token validation (without UserDetails)
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            verify(token);
+            return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // O(1), allocation-free lookup in the in-memory revocation set
+    private VerifiedToken checkNotRevoked(VerifiedToken verified) {
+        if (revokedTokenSet.contains(verified.getTokenId())) {
+            throw new JwtException("Token revoked");
+        }
+        return verified;
+    }
+
+    // Bounded without an LRU lock on the hot path: when full, drop expired
+    // entries, and if that is not enough start over (a miss only costs one HMAC)
+    private void cacheVerified(String token, VerifiedToken verified, long now) {
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            verifiedTokens.values().removeIf(entry -> entry.isExpired(now));
+            if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, verified);
+    }
+}
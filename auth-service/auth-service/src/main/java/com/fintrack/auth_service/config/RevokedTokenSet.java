@@ -0,0 +1,119 @@
+package com.fintrack.auth_service.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// In-memory set of revoked access token ids, checked on every verification.
+// Ids are reduced to 64-bit fingerprints in an open-addressing long[] table, so a
+// lookup is O(1) and allocates nothing. The table is copy-on-write: readers never
+// lock, writers (rare - logout, refresh reuse, DB sync) publish a new array.
+@Component
+public class RevokedTokenSet {
+
+    private static final long EMPTY = 0L;
+
+    private volatile long[] table = new long[16];
+
+    private int size;  // Guarded by this
+
+    // Local revocations since the last reload started, re-applied after it
+    private final List<long[]> recentLocal = new ArrayList<>();  // {fingerprint, addedAtMillis}
+
+    public boolean contains(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        long fingerprint = fingerprint(tokenId);
+        long[] current = table;
+        int mask = current.length - 1;
+
+        for (int i = slot(fingerprint, mask); ; i = (i + 1) & mask) {
+            long value = current[i];
+            if (value == EMPTY) {
+                return false;
+            }
+            if (value == fingerprint) {
+                return true;
+            }
+        }
+    }
+
+    public synchronized void add(String tokenId) {
+        long fingerprint = fingerprint(tokenId);
+        recentLocal.add(new long[]{fingerprint, System.currentTimeMillis()});
+
+        long[] copy = size * 2 + 2 > table.length ? new long[table.length * 2] : table.clone();
+        if (copy.length != table.length) {
+            for (long value : table) {
+                if (value != EMPTY) {
+                    insert(copy, value);
+                }
+            }
+        }
+        if (insert(copy, fingerprint)) {
+            size++;
+        }
+        table = copy;
+    }
+
+    // Replace the contents with the ids loaded from the database. Local additions made
+    // after loadStartedMillis may not be in that load, so they are kept.
+    public synchronized void replaceAll(Collection<String> tokenIds, long loadStartedMillis) {
+        recentLocal.removeIf(entry -> entry[1] < loadStartedMillis);
+
+        int capacity = 16;
+        while (capacity < (tokenIds.size() + recentLocal.size()) * 2 + 2) {
+            capacity <<= 1;
+        }
+
+        long[] rebuilt = new long[capacity];
+        int count = 0;
+        for (String tokenId : tokenIds) {
+            if (insert(rebuilt, fingerprint(tokenId))) {
+                count++;
+            }
+        }
+        for (long[] entry : recentLocal) {
+            if (insert(rebuilt, entry[0])) {
+                count++;
+            }
+        }
+
+        size = count;
+        table = rebuilt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] target, long fingerprint) {
+        int mask = target.length - 1;
+        for (int i = slot(fingerprint, mask); ; i = (i + 1) & mask) {
+            if (target[i] == fingerprint) {
+                return false;
+            }
+            if (target[i] == EMPTY) {
+                target[i] = fingerprint;
+                return true;
+            }
+        }
+    }
+
+    private static int slot(long fingerprint, int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    // FNV-1a over the characters (no allocation); 0 is reserved for empty slots
+    private static long fingerprint(String tokenId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            hash ^= tokenId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == EMPTY ? 1L : hash;
+    }
+}
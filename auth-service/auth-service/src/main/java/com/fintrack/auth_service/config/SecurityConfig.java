@@ -36,7 +36,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints
-                        .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/health").permitAll()
+                        .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/health",
+                                "/api/auth/refresh", "/api/auth/logout", "/api/auth/revoked").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,45 @@
+package com.fintrack.auth_service.config;
+
+import java.util.Date;
+
+// Claims of a token whose signature and expiry have been checked (immutable)
+public final class VerifiedToken {
+
+    private final String tokenId;  // jti, used for revocation
+    private final String subject;  // User email
+    private final Long userId;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String tokenId, String subject, Long userId, Date issuedAt, Date expiresAt) {
+        this.tokenId = tokenId;
+        this.subject = subject;
+        this.userId = userId;
+        this.issuedAtMillis = issuedAt != null ? issuedAt.getTime() : 0;
+        this.expiresAtMillis = expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis > expiresAtMillis;  // Same rule as the JWT parser (valid up to exp)
+    }
+}
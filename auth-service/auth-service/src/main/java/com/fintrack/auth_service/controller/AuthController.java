@@ -2,25 +2,44 @@ package com.fintrack.auth_service.controller;
 
 import com.fintrack.auth_service.entities.User;
 import com.fintrack.auth_service.service.AuthService;
+import com.fintrack.auth_service.service.AuthenticatedUser;
+import com.fintrack.auth_service.service.LoginRateLimiter;
+import com.fintrack.auth_service.service.PasswordHashingExecutor;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import com.fintrack.auth_service.entities.ValidationRequest; // Add this
 
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
 
+    private static final int MAX_BATCH_TOKENS = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    // Peers (the api-gateway) whose X-Forwarded-For is trusted for the per-IP login limit
+    @Value("${auth.trusted-proxies:127.0.0.1,0:0:0:0:0:0:0:1}")
+    private Set<String> trustedProxies;
+
     // Health check (public)
     @GetMapping("/health")
     public ResponseEntity<?> health() {
@@ -33,10 +52,18 @@ public class AuthController {
 
     // Register new user (public)
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
+    public ResponseEntity<?> register(@RequestBody User user, HttpServletRequest httpRequest) {
+        // Throttled before any lookup or hashing
+        long retryAfter = loginRateLimiter.tryAcquire(clientIp(httpRequest), user.getEmail());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+
         try {
             Map<String, Object> response = authService.registerUser(user);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingExecutor.BusyException e) {
+            return serviceBusy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
@@ -45,7 +72,7 @@ public class AuthController {
 
     // Login user (public)
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials, HttpServletRequest httpRequest) {
         try {
             String email = credentials.get("email");
             String password = credentials.get("password");
@@ -55,14 +82,61 @@ public class AuthController {
                         .body(Map.of("error", "Email and password are required"));
             }
 
+            // Throttled before any lookup or hashing
+            long retryAfter = loginRateLimiter.tryAcquire(clientIp(httpRequest), email);
+            if (retryAfter > 0) {
+                return tooManyAttempts(retryAfter);
+            }
+
             Map<String, Object> response = authService.loginUser(email, password);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingExecutor.BusyException e) {
+            return serviceBusy(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Exchange a refresh token for a new access token (public): {"refreshToken": "..."}
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+        try {
+            String refreshToken = request.get("refreshToken");
+
+            if (refreshToken == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Refresh token is required"));
+            }
+
+            return ResponseEntity.ok(authService.refreshTokens(refreshToken));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Logout (public): revokes the bearer access token and {"refreshToken": "..."} if given
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, String> request) {
+
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ")
+                ? authHeader.substring(7)
+                : null;
+        String refreshToken = request != null ? request.get("refreshToken") : null;
+
+        authService.logout(accessToken, refreshToken);
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+
+    // Revoked, unexpired access token ids (public) - lets other services verify tokens locally
+    @GetMapping("/revoked")
+    public ResponseEntity<?> getRevokedTokens() {
+        return ResponseEntity.ok(Map.of("tokenIds", authService.getRevokedTokenIds()));
+    }
+
     // Validate token (public) - FIX THIS METHOD
     @PostMapping("/validate")
     public ResponseEntity<?> validateToken(@RequestBody ValidationRequest request) {
@@ -82,6 +156,27 @@ public class AuthController {
         }
     }
 
+    // Validate up to MAX_BATCH_TOKENS tokens in one round trip (service-to-service).
+    // Body: [{"token": "...", "userId": 1}, {"token": "..."}]; results are in input order.
+    @PostMapping("/validate-batch")
+    public ResponseEntity<?> validateTokenBatch(@RequestBody List<ValidationRequest> requests) {
+        try {
+            if (requests == null || requests.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "At least one token is required"));
+            }
+            if (requests.size() > MAX_BATCH_TOKENS) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "At most " + MAX_BATCH_TOKENS + " tokens per batch"));
+            }
+
+            return ResponseEntity.ok(authService.validateTokens(requests));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Add this new endpoint for user validation
     @PostMapping("/validate-user")
     public ResponseEntity<?> validateUser(@RequestBody ValidationRequest request) {
@@ -124,44 +219,85 @@ public class AuthController {
     }
 
     // Get current user profile (requires authentication)
+    // Served from the principal the JWT filter already resolved (cached) - no token re-parse or user query
     @GetMapping("/profile")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> getProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getProfile(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String token = authHeader.substring(7);
-            Map<String, Object> validationResult = authService.validateToken(token);
-
-            // Check if token is valid
-            if (!(Boolean) validationResult.get("valid")) {
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Invalid token"));
             }
 
-            // Extract user ID correctly
-            Long userId = ((Number) validationResult.get("userId")).longValue();
-
-            User user = authService.getUserById(userId);
-
-            return ResponseEntity.ok(Map.of(
-                    "id", user.getUserId(),
-                    "name", user.getName(),
-                    "email", user.getEmail()
-            ));
+            Map<String, Object> profile = new HashMap<>();
+            profile.put("id", user.getUserId());
+            profile.put("name", user.getName());
+            profile.put("email", user.getUsername());
+            return ResponseEntity.ok(profile);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid token or user not found: " + e.getMessage()));
         }
     }
 
-    // Get all users (requires authentication - admin only in future)
+    // Login/register rate limiter metrics (requires authentication)
+    @GetMapping("/metrics/rate-limit")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getRateLimitMetrics() {
+        return ResponseEntity.ok(loginRateLimiter.getMetrics());
+    }
+
+    // Password hashing pool metrics (requires authentication)
+    @GetMapping("/metrics/password-hashing")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getPasswordHashingMetrics() {
+        return ResponseEntity.ok(authService.getPasswordHashingMetrics());
+    }
+
+    // List users page by page (requires authentication - admin only in future)
+    // e.g. /users?limit=50, then /users?afterId=<nextAfterId>; /users?email=ann&afterEmail=<nextAfterEmail>
     @GetMapping("/users")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String afterEmail,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         try {
-            return ResponseEntity.ok(authService.getAllUsers());
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(authService.listUsers(afterId, email, afterEmail, pageSize));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", e.getMessage()));
         }
     }
+
+    private ResponseEntity<?> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(Map.of("error", "Too many attempts, please retry in " + retryAfterSeconds + "s"));
+    }
+
+    // Client address as seen by the gateway (last X-Forwarded-For hop), else the socket peer.
+    // The gateway appends the address it accepted the connection from as the last hop;
+    // earlier hops are whatever the client chose to send. The header is only honoured when
+    // the connection comes from a trusted proxy - a direct caller could otherwise pick a
+    // fresh address per attempt and never hit the per-IP limit.
+    private String clientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank() && trustedProxies.contains(request.getRemoteAddr())) {
+            String lastHop = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+            if (!lastHop.isEmpty()) {
+                return lastHop;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Hashing pool saturated: fail fast so clients back off instead of queueing
+    private ResponseEntity<?> serviceBusy(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("error", e.getMessage()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.fintrack.auth_service.repository;
+
+import com.fintrack.auth_service.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    RefreshToken findByTokenHash(String tokenHash);
+
+    // Rotate: succeeds for exactly one caller even if the same token is presented twice at once
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true, r.rotatedAt = :now WHERE r.id = :id AND r.revoked = false")
+    int markRotated(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // A family is alive while it has an unused token (logout and reuse revoke them all)
+    boolean existsByFamilyIdAndRevokedFalse(String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,8 +2,18 @@ package com.fintrack.auth_service.repository;
 
 
 import com.fintrack.auth_service.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
-}
\ No newline at end of file
+
+    // Keyset pages by primary key: WHERE user_id > :afterId ORDER BY user_id LIMIT n
+    List<UserSummary> findByUserIdGreaterThanOrderByUserIdAsc(Long afterId, Limit limit);
+
+    // Keyset pages of an email-prefix search, served by the unique email index
+    List<UserSummary> findByEmailStartingWithAndEmailGreaterThanOrderByEmailAsc(
+            String emailPrefix, String afterEmail, Limit limit);
+}
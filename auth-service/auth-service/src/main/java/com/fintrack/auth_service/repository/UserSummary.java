@@ -0,0 +1,10 @@
+package com.fintrack.auth_service.repository;
+
+// Lightweight user projection for listings (never loads the password hash)
+public interface UserSummary {
+    Long getUserId();
+
+    String getName();
+
+    String getEmail();
+}
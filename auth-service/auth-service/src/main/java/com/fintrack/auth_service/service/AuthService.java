@@ -1,18 +1,28 @@
 package com.fintrack.auth_service.service;
 
 import com.fintrack.auth_service.config.JwtUtil;
+import com.fintrack.auth_service.config.VerifiedToken;
 import com.fintrack.auth_service.entities.User;
+import com.fintrack.auth_service.entities.ValidationRequest;
 import com.fintrack.auth_service.repository.UserRepository;
+import com.fintrack.auth_service.repository.UserSummary;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 @Service
 public class AuthService {
 
+    private static final int PARALLEL_BATCH_THRESHOLD = 64;  // Smaller batches are cheaper on the caller thread
+
     @Autowired
     private UserRepository userRepository;
 
@@ -25,17 +35,28 @@ public class AuthService {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private TokenService tokenService;
+
     public Map<String, Object> registerUser(User user) {
         // Check if email already exists
         if (userRepository.findByEmail(user.getEmail()) != null) {
             throw new RuntimeException("Email already exists: " + user.getEmail());
         }
 
-        // Encrypt password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        // Encrypt password before saving (BCrypt runs on the bounded hashing pool)
+        String rawPassword = user.getPassword();
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(rawPassword)));
 
         // Save user
         User savedUser = userRepository.save(user);
+        userDetailsCache.invalidate(savedUser.getUserId());
 
         // Generate REAL JWT token
         String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getUserId());
@@ -49,6 +70,8 @@ public class AuthService {
                 "email", savedUser.getEmail()
         ));
         response.put("token", token);
+        response.put("refreshToken", tokenService.issueRefreshToken(savedUser.getUserId()));
+        response.put("expiresIn", jwtUtil.getExpiration() / 1000);
 
         return response;
     }
@@ -60,8 +83,9 @@ public class AuthService {
             throw new RuntimeException("User not found with email: " + email);
         }
 
-        // Verify password with encryption
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        // Verify password with encryption (BCrypt runs on the bounded hashing pool)
+        String passwordHash = user.getPassword();
+        if (!passwordHashingExecutor.execute(() -> passwordEncoder.matches(password, passwordHash))) {
             throw new RuntimeException("Invalid password");
         }
 
@@ -77,25 +101,59 @@ public class AuthService {
         response.put("message", "Login successful");
         response.put("user", userInfo);
         response.put("token", token);
+        response.put("refreshToken", tokenService.issueRefreshToken(user.getUserId()));
+        response.put("expiresIn", jwtUtil.getExpiration() / 1000);
 
         return response;
     }
 
+    // New short-lived access token plus a rotated refresh token
+    public Map<String, Object> refreshTokens(String refreshToken) {
+        TokenService.Rotation rotation = tokenService.rotate(refreshToken);
+        if (rotation == null) {
+            throw new RuntimeException("Invalid or expired refresh token");
+        }
+
+        AuthenticatedUser user = userDetailsService.loadUserById(rotation.getUserId());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtUtil.generateToken(user.getUsername(), user.getUserId()));
+        response.put("refreshToken", rotation.getRefreshToken());
+        response.put("expiresIn", jwtUtil.getExpiration() / 1000);
+        return response;
+    }
+
+    // Revoke the access token (if still valid) and the refresh token's family
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                tokenService.revokeAccessToken(jwtUtil.verify(accessToken));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already invalid, nothing to revoke
+            }
+        }
+        if (refreshToken != null) {
+            tokenService.revokeRefreshToken(refreshToken);
+        }
+    }
+
+    public List<String> getRevokedTokenIds() {
+        return tokenService.getRevokedTokenIds();
+    }
+
     public Map<String, Object> validateToken(String token) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            if (jwtUtil.validateToken(token)) {
-                Long userId = jwtUtil.extractUserId(token);
-                String username = jwtUtil.extractUsername(token);
+            // One verification (or a cache hit) yields every claim we need
+            VerifiedToken verified = jwtUtil.verify(token);
 
-                response.put("valid", true);
-                response.put("userId", userId);
-                response.put("username", username);
-            } else {
-                response.put("valid", false);
-                response.put("error", "Invalid or expired token");
-            }
+            response.put("valid", true);
+            response.put("userId", verified.getUserId());
+            response.put("username", verified.getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            response.put("valid", false);
+            response.put("error", "Invalid or expired token");
         } catch (Exception e) {
             response.put("valid", false);
             response.put("error", e.getMessage());
@@ -104,8 +162,78 @@ public class AuthService {
         return response;
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // Validate many tokens (optionally against expected user ids) in one call.
+    // Verification is CPU-bound, so larger batches are spread across cores;
+    // results keep the input order.
+    public List<Map<String, Object>> validateTokens(List<ValidationRequest> requests) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object>[] results = new Map[requests.size()];
+
+        IntStream indexes = IntStream.range(0, requests.size());
+        if (requests.size() >= PARALLEL_BATCH_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            ValidationRequest request = requests.get(i);
+            Map<String, Object> result = request == null || request.getToken() == null
+                    ? new HashMap<>(Map.of("valid", false, "error", "Token is required"))
+                    : validateToken(request.getToken());
+
+            // Same rule as /validate-user when an expected user id is given
+            if (request != null && request.getUserId() != null && Boolean.TRUE.equals(result.get("valid"))
+                    && !request.getUserId().equals(result.get("userId"))) {
+                result.put("valid", false);
+                result.put("error", "User ID mismatch");
+            }
+            result.put("index", i);
+            results[i] = result;
+        });
+
+        return Arrays.asList(results);
+    }
+
+    public Map<String, Object> getPasswordHashingMetrics() {
+        return passwordHashingExecutor.getMetrics();
+    }
+
+    // One keyset page of users as (id, name, email). Memory is bounded by the page size:
+    // without a prefix the cursor is the last user id, with one it is the last email.
+    public Map<String, Object> listUsers(Long afterId, String emailPrefix, String afterEmail, int limit) {
+        // One extra row tells whether another page exists
+        List<UserSummary> rows;
+        if (emailPrefix != null && !emailPrefix.isBlank()) {
+            rows = userRepository.findByEmailStartingWithAndEmailGreaterThanOrderByEmailAsc(
+                    emailPrefix, afterEmail != null ? afterEmail : "", Limit.of(limit + 1));
+        } else {
+            rows = userRepository.findByUserIdGreaterThanOrderByUserIdAsc(
+                    afterId != null ? afterId : 0L, Limit.of(limit + 1));
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<UserSummary> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<Map<String, Object>> users = new ArrayList<>(page.size());
+        for (UserSummary row : page) {
+            Map<String, Object> user = new HashMap<>();
+            user.put("id", row.getUserId());
+            user.put("name", row.getName());
+            user.put("email", row.getEmail());
+            users.add(user);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", users);
+        response.put("limit", limit);
+        response.put("hasMore", hasMore);
+        if (hasMore) {
+            UserSummary last = page.get(page.size() - 1);
+            if (emailPrefix != null && !emailPrefix.isBlank()) {
+                response.put("nextAfterEmail", last.getEmail());
+            } else {
+                response.put("nextAfterId", last.getUserId());
+            }
+        }
+        return response;
     }
 
     public User getUserById(Long id) {
@@ -0,0 +1,28 @@
+package com.fintrack.auth_service.service;
+
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+// Security principal that also carries the user's id and display name,
+// so authenticated endpoints can answer without loading the user again.
+// Built from a verified token, so it never holds the password hash (it is cached).
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+    private final String name;
+
+    public AuthenticatedUser(com.fintrack.auth_service.entities.User user) {
+        super(user.getEmail(), "", Collections.emptyList());  // No password, no roles for now
+        this.userId = user.getUserId();
+        this.name = user.getName();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -16,6 +16,10 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    // UserDetailsService contract (password authentication): includes the hash, never cached
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email);
@@ -24,21 +28,42 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.emptyList()  // No roles for now
-        );
+        return org.springframework.security.core.userdetails.User
+                .withUsername(user.getEmail())
+                .password(user.getPassword())
+                .authorities(Collections.emptyList())
+                .build();
+    }
+
+    // Principal for a verified token (cached, without the password hash)
+    public AuthenticatedUser loadUserByEmail(String email) {
+        AuthenticatedUser cached = userDetailsCache.getByEmail(email);
+        if (cached != null) {
+            return cached;
+        }
+
+        User user = userRepository.findByEmail(email);
+
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+
+        AuthenticatedUser details = new AuthenticatedUser(user);
+        userDetailsCache.put(details);
+        return details;
     }
 
-    public UserDetails loadUserById(Long userId) {
+    public AuthenticatedUser loadUserById(Long userId) {
+        AuthenticatedUser cached = userDetailsCache.getById(userId);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + userId));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.emptyList()
-        );
+        AuthenticatedUser details = new AuthenticatedUser(user);
+        userDetailsCache.put(details);
+        return details;
     }
-}
\ No newline at end of file
+}
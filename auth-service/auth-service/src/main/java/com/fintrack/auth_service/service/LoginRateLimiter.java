@@ -0,0 +1,181 @@
+package com.fintrack.auth_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token-bucket throttling of login/register attempts per client IP and per email,
+// checked before any user lookup or BCrypt work. Buckets live in a concurrent map
+// (each bucket locks only itself); a bucket that has refilled completely carries
+// no state, so the sweeper drops it and memory tracks only recently active keys.
+// When the map is full of busy keys the stalest of a small sample is evicted to
+// make room - a new key is always tracked, never waved through unlimited.
+@Component
+public class LoginRateLimiter {
+
+    @Value("${auth.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${auth.rate-limit.ip.refill-per-minute:20}")
+    private int ipRefillPerMinute;
+
+    @Value("${auth.rate-limit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${auth.rate-limit.email.refill-per-minute:5}")
+    private int emailRefillPerMinute;
+
+    @Value("${auth.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private volatile long lastInlineSweepNanos;
+
+    // Metrics
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByEmail = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder evictedActive = new LongAdder();
+
+    // 0 if the attempt may proceed, otherwise seconds until the next one is allowed
+    public long tryAcquire(String clientIp, String email) {
+        long now = System.nanoTime();
+
+        long ipWait = acquire("ip:" + clientIp, ipCapacity, ipRefillPerMinute, now);
+        if (ipWait > 0) {
+            rejectedByIp.increment();
+            return toRetryAfterSeconds(ipWait);
+        }
+
+        if (email != null) {
+            long emailWait = acquire("email:" + email.trim().toLowerCase(Locale.ROOT),
+                    emailCapacity, emailRefillPerMinute, now);
+            if (emailWait > 0) {
+                rejectedByEmail.increment();
+                return toRetryAfterSeconds(emailWait);
+            }
+        }
+
+        allowed.increment();
+        return 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rejectedByIp", rejectedByIp.sum());
+        metrics.put("rejectedByEmail", rejectedByEmail.sum());
+        metrics.put("trackedKeys", buckets.size());
+        metrics.put("maxKeys", maxKeys);
+        metrics.put("evictedIdleBuckets", evicted.sum());
+        metrics.put("evictedActiveBuckets", evictedActive.sum());
+        return metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-interval-ms:30000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> {
+            if (bucket.isFull(now)) {
+                evicted.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private long acquire(String key, int capacity, int refillPerMinute, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                makeRoom(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, refillPerMinute, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    // Inline sweep when the map is full (at most once per second); if every bucket is
+    // still busy, drop the least recently used one among a sample
+    private void makeRoom(long now) {
+        if (now - lastInlineSweepNanos > 1_000_000_000L) {
+            lastInlineSweepNanos = now;
+            evictIdleBuckets();
+        }
+        while (buckets.size() >= maxKeys) {
+            String stalestKey = null;
+            long stalestUse = Long.MAX_VALUE;
+            int sampled = 0;
+            for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+                long lastUse = entry.getValue().lastUsedNanos();
+                if (stalestKey == null || lastUse - stalestUse < 0) {
+                    stalestKey = entry.getKey();
+                    stalestUse = lastUse;
+                }
+                if (++sampled >= EVICTION_SAMPLE_SIZE) {
+                    break;
+                }
+            }
+            if (stalestKey == null) {
+                return;
+            }
+            if (buckets.remove(stalestKey) != null) {
+                evictedActive.increment();
+            }
+        }
+    }
+
+    private long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private static final class Bucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        Bucket(int capacity, int refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / 60_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        // 0 if a token was taken, otherwise nanos until one is available
+        synchronized long tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        synchronized long lastUsedNanos() {
+            return lastRefillNanos;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefillNanos) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+                lastRefillNanos = now;
+            }
+        }
+    }
+}
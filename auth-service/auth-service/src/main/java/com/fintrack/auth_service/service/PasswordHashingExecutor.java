@@ -0,0 +1,148 @@
+package com.fintrack.auth_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Runs BCrypt encode/matches on a dedicated pool sized to the CPU count, so a
+// login storm cannot occupy every Tomcat worker. Admission is decided up front:
+// when the queue is full, or the queued work alone would take longer than the
+// caller may wait, the request is rejected immediately (503) instead of parking
+// a Tomcat thread until the timeout. Defaults: a queue of 16 and a 1500 ms wait
+// (queue + hash). The timeout must stay below the gateway's response-timeout for
+// the auth route (2500 ms), so the client gets this 503, not a 504.
+@Component
+public class PasswordHashingExecutor {
+
+    @Value("${auth.password-hashing.threads:0}")
+    private int threads;  // 0 = number of available processors
+
+    @Value("${auth.password-hashing.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${auth.password-hashing.timeout-ms:1500}")
+    private long timeoutMs;  // Max time a caller waits (queue + hash)
+
+    private ThreadPoolExecutor executor;
+
+    // Metrics
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicLong counter = new AtomicLong();
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Run a hashing task and wait for its result; throws BusyException when saturated
+    public <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+
+        // Queued tasks ahead of this one, spread over the pool, at the average hash time
+        long count = completed.sum();
+        if (count > 0) {
+            double avgHashMs = totalHashNanos.sum() / (double) count / 1_000_000;
+            double expectedWaitMs = (executor.getQueue().size() + 1) * avgHashMs / executor.getMaximumPoolSize();
+            if (expectedWaitMs > timeoutMs) {
+                rejected.increment();
+                throw new BusyException("Authentication is busy, please retry shortly");
+            }
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                record(totalQueueWaitNanos, maxQueueWaitNanos, startedAt - submittedAt);
+                try {
+                    return task.get();
+                } finally {
+                    record(totalHashNanos, maxHashNanos, System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException("Authentication is busy, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new BusyException("Authentication timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusyException("Authentication was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        long count = completed.sum();
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("poolSize", executor.getMaximumPoolSize());
+        metrics.put("activeThreads", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("completed", count);
+        metrics.put("rejected", rejected.sum());
+        metrics.put("timedOut", timedOut.sum());
+        metrics.put("avgHashMs", count > 0 ? toMillis(totalHashNanos.sum() / count) : 0.0);
+        metrics.put("maxHashMs", toMillis(maxHashNanos.get()));
+        metrics.put("avgQueueWaitMs", count > 0 ? toMillis(totalQueueWaitNanos.sum() / count) : 0.0);
+        metrics.put("maxQueueWaitMs", toMillis(maxQueueWaitNanos.get()));
+        return metrics;
+    }
+
+    private void record(LongAdder total, AtomicLong max, long nanos) {
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    // Pool saturated or caller waited too long - mapped to 503 by the controller
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+}
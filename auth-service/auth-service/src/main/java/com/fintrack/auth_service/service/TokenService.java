@@ -0,0 +1,217 @@
+package com.fintrack.auth_service.service;
+
+import com.fintrack.auth_service.config.RevokedTokenSet;
+import com.fintrack.auth_service.config.VerifiedToken;
+import com.fintrack.auth_service.entities.RefreshToken;
+import com.fintrack.auth_service.entities.RevokedToken;
+import com.fintrack.auth_service.repository.RefreshTokenRepository;
+import com.fintrack.auth_service.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+// Refresh token rotation and access token revocation.
+// Refresh tokens are opaque random strings stored as SHA-256 hashes; each use
+// returns a new one. Revoked access token ids are persisted and mirrored into
+// RevokedTokenSet, which every instance reloads from the database periodically.
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private RevokedTokenSet revokedTokenSet;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+
+    // A just-rotated token presented again within this window is a concurrent double refresh
+    // (two tabs, a client retry), not theft: it gets a token in the same family instead of
+    // revoking it
+    @Value("${auth.refresh.reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        syncRevocations();
+    }
+
+    // New refresh token for a fresh login (starts a new rotation family)
+    @Transactional
+    public String issueRefreshToken(Long userId) {
+        return createRefreshToken(userId, UUID.randomUUID().toString());
+    }
+
+    // Exchange a refresh token for a new one. Returns null if the token is unknown,
+    // expired or was already used - reuse revokes the whole family (likely stolen),
+    // except within the short grace window after its rotation.
+    @Transactional
+    public Rotation rotate(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (current == null || current.getExpiresAt().isBefore(now)) {
+            return null;
+        }
+
+        if (current.getRevoked() || refreshTokenRepository.markRotated(current.getId(), now) == 0) {
+            if (isBenignReuse(current, now)) {
+                String next = createRefreshToken(current.getUserId(), current.getFamilyId());
+                return new Rotation(current.getUserId(), next);
+            }
+
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("Refresh token reuse detected for user {}, family revoked", current.getUserId());
+            return null;
+        }
+
+        String next = createRefreshToken(current.getUserId(), current.getFamilyId());
+        return new Rotation(current.getUserId(), next);
+    }
+
+    // Logout: end the refresh token's family
+    @Transactional
+    public void revokeRefreshToken(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (token != null) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+        }
+    }
+
+    // Revoke an access token before it expires; effective locally at once,
+    // on other instances after their next sync
+    @Transactional
+    public void revokeAccessToken(VerifiedToken token) {
+        if (token.getTokenId() == null) {
+            return;  // Issued before token ids existed; expires on its own
+        }
+
+        RevokedToken revoked = new RevokedToken();
+        revoked.setTokenId(token.getTokenId());
+        revoked.setUserId(token.getUserId());
+        revoked.setExpiresAt(LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(token.getExpiresAtMillis()), ZoneId.systemDefault()));
+        revokedTokenRepository.save(revoked);
+
+        // Only once the row is committed: a rolled back revocation must not linger in memory
+        String tokenId = token.getTokenId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokedTokenSet.add(tokenId);
+                }
+            });
+        } else {
+            revokedTokenSet.add(tokenId);
+        }
+    }
+
+    // Ids of revoked, not yet expired access tokens (for services verifying locally)
+    public List<String> getRevokedTokenIds() {
+        return revokedTokenRepository.findActiveTokenIds(LocalDateTime.now());
+    }
+
+    @Scheduled(initialDelayString = "${auth.revocation.sync-interval-ms:5000}",
+            fixedDelayString = "${auth.revocation.sync-interval-ms:5000}")
+    public void syncRevocations() {
+        long started = System.currentTimeMillis();
+        List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(LocalDateTime.now());
+        revokedTokenSet.replaceAll(tokenIds, started);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            revokedTokenRepository.deleteExpired(now);
+            refreshTokenRepository.deleteExpired(now);
+        });
+    }
+
+    // Rotated moments ago (by an earlier request, or concurrently with this one) and the
+    // family has not been revoked by logout or a real reuse
+    private boolean isBenignReuse(RefreshToken token, LocalDateTime now) {
+        LocalDateTime rotatedAt = token.getRevoked() ? token.getRotatedAt() : now;
+        return rotatedAt != null
+                && !rotatedAt.isBefore(now.minusNanos(reuseGraceMs * 1_000_000))
+                && refreshTokenRepository.existsByFamilyIdAndRevokedFalse(token.getFamilyId());
+    }
+
+    private String createRefreshToken(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000));
+        refreshTokenRepository.save(token);
+
+        return rawToken;
+    }
+
+    private String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Result of a successful refresh token rotation
+    public static class Rotation {
+        private final Long userId;
+        private final String refreshToken;
+
+        public Rotation(Long userId, String refreshToken) {
+            this.userId = userId;
+            this.refreshToken = refreshToken;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
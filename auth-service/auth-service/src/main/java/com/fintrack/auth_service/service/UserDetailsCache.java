@@ -0,0 +1,107 @@
+package com.fintrack.auth_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded TTL cache of authenticated principals, reachable by user id and by email.
+// Lock-free reads (every authenticated request hits it). Entries expire after the
+// TTL; when full, expired entries go first, then arbitrary ones. Anything that
+// changes a user's password or profile must call invalidate so the next request
+// reloads it. Cached principals carry no password hash.
+@Component
+public class UserDetailsCache {
+
+    @Value("${auth.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${auth.user-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    // email -> user id; may briefly point at an evicted id, which then simply misses
+    private final Map<String, Long> byEmail = new ConcurrentHashMap<>();
+
+    public AuthenticatedUser getById(Long userId) {
+        Entry entry = byId.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            remove(userId, entry);
+            return null;
+        }
+        return entry.user;
+    }
+
+    public AuthenticatedUser getByEmail(String email) {
+        Long userId = byEmail.get(email);
+        if (userId == null) {
+            return null;
+        }
+        AuthenticatedUser user = getById(userId);
+        // Guards against a stale email mapping after an email change
+        return user != null && user.getUsername().equals(email) ? user : null;
+    }
+
+    public void put(AuthenticatedUser user) {
+        long now = System.currentTimeMillis();
+        if (byId.size() >= maxSize) {
+            evict(now);
+        }
+
+        Entry previous = byId.put(user.getUserId(), new Entry(user, now + ttlSeconds * 1000));
+        if (previous != null && !previous.user.getUsername().equals(user.getUsername())) {
+            byEmail.remove(previous.user.getUsername(), user.getUserId());  // Email changed
+        }
+        byEmail.put(user.getUsername(), user.getUserId());
+    }
+
+    // Call after a password or profile change
+    public void invalidate(Long userId) {
+        Entry entry = byId.get(userId);
+        if (entry != null) {
+            remove(userId, entry);
+        }
+    }
+
+    public void invalidate(String email) {
+        Long userId = byEmail.get(email);
+        if (userId != null) {
+            invalidate(userId);
+        }
+    }
+
+    private void remove(Long userId, Entry entry) {
+        if (byId.remove(userId, entry)) {
+            byEmail.remove(entry.user.getUsername(), userId);
+        }
+    }
+
+    private void evict(long now) {
+        byId.forEach((userId, entry) -> {
+            if (entry.expiresAt < now) {
+                remove(userId, entry);
+            }
+        });
+        Iterator<Map.Entry<Long, Entry>> entries = byId.entrySet().iterator();
+        while (byId.size() >= maxSize && entries.hasNext()) {
+            Map.Entry<Long, Entry> eldest = entries.next();
+            remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static final class Entry {
+        final AuthenticatedUser user;
+        final long expiresAt;
+
+        Entry(AuthenticatedUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
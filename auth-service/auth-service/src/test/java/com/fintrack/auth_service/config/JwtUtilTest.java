@@ -0,0 +1,92 @@
+package com.fintrack.auth_service.config;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Validations per second of JwtUtil.verify: a first validation pays the HMAC and JSON
+// parse, repeats of the same token are served from the verified cache and must be
+// much cheaper - while a revoked token is still refused from the cache
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jwt-util;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false"
+})
+class JwtUtilTest {
+
+    private static final int TOKENS = 2_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevokedTokenSet revokedTokenSet;
+
+    @Test
+    void cachedValidationsAreMuchFasterThanFullParses() {
+        // Warm up the parser, the cache and the JIT on a separate set of tokens
+        List<String> warmUp = tokens(TOKENS, 0);
+        for (int round = 0; round < ROUNDS; round++) {
+            verifyAll(warmUp);
+        }
+
+        double bestFullPerSecond = 0;
+        double bestCachedPerSecond = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            List<String> fresh = tokens(TOKENS, (round + 1) * TOKENS);
+            bestFullPerSecond = Math.max(bestFullPerSecond, perSecond(fresh));
+            bestCachedPerSecond = Math.max(bestCachedPerSecond, perSecond(fresh));
+        }
+        System.out.printf("JWT validations: %.0f/s full parse, %.0f/s cached%n", bestFullPerSecond, bestCachedPerSecond);
+
+        // Thousands per second on the full path, millions when cached; the bounds leave room for slow CI machines
+        assertTrue(bestCachedPerSecond > 100_000, "cached validations per second: " + bestCachedPerSecond);
+        assertTrue(bestCachedPerSecond > 5 * bestFullPerSecond,
+                "cached " + bestCachedPerSecond + "/s vs full " + bestFullPerSecond + "/s");
+    }
+
+    @Test
+    void cachedTokenIsStillRefusedOnceRevoked() {
+        String token = jwtUtil.generateToken("revoked@example.com", 7L);
+        VerifiedToken verified = jwtUtil.verify(token);
+        assertEquals(7L, verified.getUserId());
+
+        revokedTokenSet.add(verified.getTokenId());
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    private List<String> tokens(int count, int firstUserId) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(jwtUtil.generateToken("user" + (firstUserId + i) + "@example.com", (long) (firstUserId + i)));
+        }
+        return tokens;
+    }
+
+    private double perSecond(List<String> tokens) {
+        long start = System.nanoTime();
+        verifyAll(tokens);
+        return tokens.size() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private void verifyAll(List<String> tokens) {
+        for (String token : tokens) {
+            jwtUtil.verify(token);
+        }
+    }
+}
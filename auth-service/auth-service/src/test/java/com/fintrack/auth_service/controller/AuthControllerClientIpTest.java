@@ -0,0 +1,73 @@
+package com.fintrack.auth_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The per-IP login limit keys on X-Forwarded-For only when the request comes through a
+// trusted proxy (the gateway); a direct caller rotating the header stays one address
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:client-ip;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "auth.rate-limit.ip.capacity=3",
+        "auth.rate-limit.ip.refill-per-minute=1",
+        "auth.trusted-proxies=10.0.0.1"
+})
+@AutoConfigureMockMvc
+class AuthControllerClientIpTest {
+
+    private static final int IP_CAPACITY = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void spoofedForwardedForFromDirectCallerIsIgnored() throws Exception {
+        for (int attempt = 0; attempt < IP_CAPACITY; attempt++) {
+            login("192.0.2.10", "198.51.100." + attempt, "direct" + attempt + "@example.com")
+                    .andExpect(status().isUnauthorized());
+        }
+        login("192.0.2.10", "198.51.100.99", "direct-last@example.com")
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void forwardedForFromTheGatewayIdentifiesTheClient() throws Exception {
+        for (int attempt = 0; attempt <= IP_CAPACITY; attempt++) {
+            login("10.0.0.1", "203.0.113." + attempt, "proxied" + attempt + "@example.com")
+                    .andExpect(status().isUnauthorized());
+        }
+        // Earlier hops are client-chosen: only the last one (appended by the gateway) counts
+        for (int attempt = 0; attempt < IP_CAPACITY; attempt++) {
+            login("10.0.0.1", "198.51.100." + attempt + ", 203.0.113.50", "hop" + attempt + "@example.com")
+                    .andExpect(status().isUnauthorized());
+        }
+        login("10.0.0.1", "198.51.100.99, 203.0.113.50", "hop-last@example.com")
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private ResultActions login(String peer, String forwardedFor, String email) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(peer);
+                    return request;
+                })
+                .header("X-Forwarded-For", forwardedFor)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}"));
+    }
+}
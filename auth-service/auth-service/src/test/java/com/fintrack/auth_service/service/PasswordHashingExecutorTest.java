@@ -0,0 +1,154 @@
+package com.fintrack.auth_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Saturation of the hashing pool (1 thread, queue of 4, 1000 ms wait): excess callers
+// must get BusyException right away instead of holding their request thread, and a
+// caller whose hash runs past the wait must be released at the timeout
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-hashing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "auth.password-hashing.threads=1",
+        "auth.password-hashing.queue-capacity=4",
+        "auth.password-hashing.timeout-ms=1000"
+})
+// The admission estimate depends on the hash times recorded so far, so every test starts from a fresh pool
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PasswordHashingExecutorTest {
+
+    private static final long TIMEOUT_MS = 1000;
+    private static final long IMMEDIATE_MS = 100;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseCallers() {
+        gate.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void fullQueueIsRejectedWithoutWaiting() throws Exception {
+        // One hash running, four queued
+        List<Future<String>> admitted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            admitted.add(callers.submit(() -> passwordHashingExecutor.execute(this::blockedHash)));
+        }
+        awaitMetrics(metrics -> (Integer) metrics.get("queued") == 4);
+
+        long elapsedMs = timeRejection();
+        System.out.printf("Full queue: rejected in %d ms%n", elapsedMs);
+
+        gate.countDown();
+        for (Future<String> caller : admitted) {
+            assertEquals("hashed", caller.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+        Map<String, Object> metrics = passwordHashingExecutor.getMetrics();
+        assertEquals(5L, metrics.get("completed"));
+        assertEquals(1L, metrics.get("rejected"));
+        assertEquals(0L, metrics.get("timedOut"));
+    }
+
+    @Test
+    void queuedWorkBeyondTheTimeoutIsRejectedBeforeTheQueueIsFull() throws Exception {
+        // Record an average hash time of about 400 ms
+        for (int i = 0; i < 2; i++) {
+            passwordHashingExecutor.execute(() -> sleep(400));
+        }
+
+        // One hash running and two queued: a third queued hash would be served after ~1200 ms
+        List<Future<String>> admitted = new ArrayList<>();
+        for (int queued = 0; queued < 3; queued++) {
+            admitted.add(callers.submit(() -> passwordHashingExecutor.execute(this::blockedHash)));
+            int expected = queued;
+            awaitMetrics(metrics -> (Integer) metrics.get("activeThreads") == 1
+                    && (Integer) metrics.get("queued") == expected);
+        }
+
+        long elapsedMs = timeRejection();
+        System.out.printf("Queue 2 of 4, ~400 ms per hash: rejected in %d ms%n", elapsedMs);
+
+        gate.countDown();
+        for (Future<String> caller : admitted) {
+            assertEquals("hashed", caller.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+        assertEquals(1L, passwordHashingExecutor.getMetrics().get("rejected"));
+    }
+
+    @Test
+    void slowHashReleasesTheCallerAtTheTimeout() {
+        long start = System.nanoTime();
+        PasswordHashingExecutor.BusyException busy = assertThrows(PasswordHashingExecutor.BusyException.class,
+                () -> passwordHashingExecutor.execute(() -> sleep(TIMEOUT_MS * 3)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Slow hash: caller released after %d ms%n", elapsedMs);
+
+        assertTrue(busy.getMessage().contains("timed out"));
+        assertTrue(elapsedMs >= TIMEOUT_MS - 50 && elapsedMs < TIMEOUT_MS + 500, "released after " + elapsedMs + " ms");
+        assertEquals(1L, passwordHashingExecutor.getMetrics().get("timedOut"));
+    }
+
+    // Submit one more hash from the test thread; it must be refused without waiting
+    private long timeRejection() {
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingExecutor.BusyException.class, () -> passwordHashingExecutor.execute(() -> "late"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs < IMMEDIATE_MS, "rejection took " + elapsedMs + " ms");
+        return elapsedMs;
+    }
+
+    private String blockedHash() {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "hashed";
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "hashed";
+    }
+
+    private void awaitMetrics(Predicate<Map<String, Object>> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.test(passwordHashingExecutor.getMetrics())) {
+            assertTrue(System.nanoTime() < deadline, "pool state not reached: " + passwordHashingExecutor.getMetrics());
+            Thread.sleep(5);
+        }
+    }
+}
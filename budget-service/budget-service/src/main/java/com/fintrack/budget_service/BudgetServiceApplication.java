@@ -1,11 +1,18 @@
 package com.fintrack.budget_service;
 
+import com.fintrack.common.config.CategoryConfig;
+import com.fintrack.common.config.FaultInjectionConfig;
+import com.fintrack.common.config.GatewayIdentityConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling  // Budget period close (BudgetPeriodCloser)
+@Import({CategoryConfig.class, GatewayIdentityConfig.class, FaultInjectionConfig.class})  // Shared code (fintrack-common)
 
 public class BudgetServiceApplication {
 
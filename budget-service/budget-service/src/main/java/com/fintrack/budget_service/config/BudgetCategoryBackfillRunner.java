@@ -0,0 +1,58 @@
+package com.fintrack.budget_service.config;
+
+import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.repository.BudgetRepository;
+import com.fintrack.budget_service.service.BudgetUserLocks;
+import com.fintrack.common.config.CategoryBackfillRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Assigns dictionary ids to budgets created before categories were dictionary-encoded
+@Component
+public class BudgetCategoryBackfillRunner extends CategoryBackfillRunner<Budget> {
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetUserLocks budgetUserLocks;
+
+    @Override
+    protected List<Budget> findLegacyRows() {
+        return budgetRepository.findByCategoryIdIsNull();
+    }
+
+    @Override
+    protected String getCategory(Budget budget) {
+        return budget.getCategory();
+    }
+
+    @Override
+    protected Long getUserId(Budget budget) {
+        return budget.getUserId();
+    }
+
+    @Override
+    protected void setCategory(Budget budget, Integer categoryId, String name) {
+        budget.setCategoryId(categoryId);
+        budget.setCategory(name);
+    }
+
+    @Override
+    protected void saveAll(List<Budget> budgets) {
+        budgetRepository.saveAll(budgets);
+    }
+
+    @Override
+    protected String rowName() {
+        return "budgets";
+    }
+
+    @Override
+    protected void afterBackfill(List<Budget> budgets) {
+        // Index snapshots built before the backfill (on any instance) did not contain these budgets
+        budgets.stream().map(Budget::getUserId).distinct().forEach(budgetUserLocks::markChanged);
+    }
+}
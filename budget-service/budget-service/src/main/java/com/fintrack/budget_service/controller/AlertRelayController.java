@@ -0,0 +1,50 @@
+package com.fintrack.budget_service.controller;
+
+import com.fintrack.budget_service.service.AlertRelay;
+import com.fintrack.budget_service.service.AlertStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Receives alerts published on the other budget-service replicas
+@RestController
+public class AlertRelayController {
+
+    @Autowired
+    private AlertRelay alertRelay;
+
+    @Autowired
+    private AlertStreamService alertStreamService;
+
+    @PostMapping("/internal/alerts/relay")
+    public ResponseEntity<?> receive(
+            @RequestHeader(value = AlertRelay.SECRET_HEADER, required = false) String secret,
+            @RequestBody Map<String, Object> message) {
+
+        if (!alertRelay.accepts(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        try {
+            Long userId = Long.valueOf(message.get("userId").toString());
+            long eventId = Long.parseLong(message.get("eventId").toString());
+            String name = (String) message.get("name");
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> payload = (Map<String, Object>) message.get("payload");
+
+            alertStreamService.deliver(userId, eventId, name, payload);
+            return ResponseEntity.noContent().build();
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Malformed relay message"));
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.fintrack.budget_service.controller;
 
 import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.entities.BudgetMember;
+import com.fintrack.budget_service.service.AlertStreamService;
+import com.fintrack.budget_service.service.BudgetMemberService;
 import com.fintrack.budget_service.service.BudgetService;
+import com.fintrack.common.config.GatewayIdentityVerifier;
+import com.fintrack.common.entities.GatewayIdentity;
+import com.fintrack.common.service.CategoryDictionary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,9 +27,23 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class BudgetController {
 
+    private static final int MAX_BATCH_ITEMS = 10_000;
+
     @Autowired
     private BudgetService budgetService;
 
+    @Autowired
+    private BudgetMemberService budgetMemberService;
+
+    @Autowired
+    private AlertStreamService alertStreamService;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
     // Health check
     @GetMapping("/health")
     public ResponseEntity<?> health() {
@@ -30,21 +54,15 @@ public class BudgetController {
         return ResponseEntity.ok(response);
     }
 
-    // SIMPLIFIED: Create budget - userId comes from request body
+    // Create budget for the authenticated caller
     @PostMapping
     public ResponseEntity<?> createBudget(@RequestBody Map<String, Object> request) {
-        try {
-            // Extract userId from request body (REQUIRED)
-            Long userId = null;
-            if (request.containsKey("userId")) {
-                userId = Long.valueOf(request.get("userId").toString());
-            }
-
-            if (userId == null) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "userId is required in request body"));
-            }
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
 
+        try {
             // Extract request data
             String category = (String) request.get("category");
             if (category == null || category.trim().isEmpty()) {
@@ -104,9 +122,14 @@ public class BudgetController {
         }
     }
 
-    // SIMPLIFIED: Get all budgets for user - userId comes from request param
+    // Get all budgets of the authenticated caller
     @GetMapping
-    public ResponseEntity<?> getUserBudgets(@RequestParam Long userId) {
+    public ResponseEntity<?> getUserBudgets() {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
         try {
             List<Budget> budgets = budgetService.getUserBudgets(userId);
             return ResponseEntity.ok(budgets);
@@ -116,9 +139,14 @@ public class BudgetController {
         }
     }
 
-    // SIMPLIFIED: Get active budgets - userId from request param
+    // Get active budgets of the authenticated caller
     @GetMapping("/active")
-    public ResponseEntity<?> getActiveBudgets(@RequestParam Long userId) {
+    public ResponseEntity<?> getActiveBudgets() {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
         try {
             List<Budget> budgets = budgetService.getActiveBudgets(userId);
             return ResponseEntity.ok(budgets);
@@ -128,11 +156,13 @@ public class BudgetController {
         }
     }
 
-    // SIMPLIFIED: Get budget by ID - userId from request param
+    // Get budget by ID (owner or member)
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBudgetById(
-            @PathVariable Long id,
-            @RequestParam Long userId) {
+    public ResponseEntity<?> getBudgetById(@PathVariable Long id) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
 
         try {
             Budget budget = budgetService.getBudgetById(id, userId);
@@ -143,24 +173,57 @@ public class BudgetController {
         }
     }
 
-    // SIMPLIFIED: Update budget
+    // Closed period history from snapshots, e.g. ?category=FOOD&from=2023-01-01
+    @GetMapping("/history")
+    public ResponseEntity<?> getBudgetHistory(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
+        try {
+            LocalDate toDate = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : toDate.minusYears(3);
+
+            return ResponseEntity.ok(budgetService.getBudgetHistory(userId, category, fromDate, toDate));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Burn-rate forecast: projected end-of-period spend at the current pace
+    @GetMapping("/{id}/forecast")
+    public ResponseEntity<?> getBudgetForecast(@PathVariable Long id) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
+        try {
+            return ResponseEntity.ok(budgetService.getBudgetForecast(id, userId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Update budget (owner only)
     @PutMapping("/{id}")
     public ResponseEntity<?> updateBudget(
             @PathVariable Long id,
             @RequestBody Map<String, Object> request) {
 
-        try {
-            // Get userId from request body
-            Long userId = null;
-            if (request.containsKey("userId")) {
-                userId = Long.valueOf(request.get("userId").toString());
-            }
-
-            if (userId == null) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "userId is required"));
-            }
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
 
+        try {
             String category = (String) request.get("category");
             Double amount = request.containsKey("amount")
                     ? Double.valueOf(request.get("amount").toString())
@@ -182,11 +245,13 @@ public class BudgetController {
         }
     }
 
-    // SIMPLIFIED: Delete budget
+    // Delete budget (owner only)
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteBudget(
-            @PathVariable Long id,
-            @RequestParam Long userId) {
+    public ResponseEntity<?> deleteBudget(@PathVariable Long id) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
 
         try {
             budgetService.deleteBudget(id, userId);
@@ -197,9 +262,85 @@ public class BudgetController {
         }
     }
 
-    // SIMPLIFIED: Get budget summary
+    // Share a budget: {"memberId": <user to add>}; the owner is the authenticated caller
+    @PostMapping("/{id}/members")
+    public ResponseEntity<?> addBudgetMember(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> request) {
+
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
+        try {
+            Long memberId = Long.valueOf(request.get("memberId").toString());
+
+            BudgetMember member = budgetMemberService.addMember(id, userId, memberId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Member added successfully");
+            response.put("budgetId", id);
+            response.put("memberId", member.getUserId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // List members of a budget (owner or member)
+    @GetMapping("/{id}/members")
+    public ResponseEntity<?> getBudgetMembers(@PathVariable Long id) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
+        try {
+            Budget budget = budgetService.getBudgetById(id, userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("budgetId", id);
+            response.put("ownerId", budget.getUserId());
+            response.put("memberIds", budgetMemberService.getMemberIds(id));
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Remove a member (the owner, or the member leaving the budget)
+    @DeleteMapping("/{id}/members/{memberId}")
+    public ResponseEntity<?> removeBudgetMember(
+            @PathVariable Long id,
+            @PathVariable Long memberId) {
+
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
+        try {
+            budgetMemberService.removeMember(id, userId, memberId);
+            return ResponseEntity.ok(Map.of("message", "Member removed successfully"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Budget summary of the authenticated caller
     @GetMapping("/summary")
-    public ResponseEntity<?> getBudgetSummary(@RequestParam Long userId) {
+    public ResponseEntity<?> getBudgetSummary() {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
         try {
             Map<String, Object> summary = budgetService.getBudgetSummary(userId);
             return ResponseEntity.ok(summary);
@@ -209,11 +350,69 @@ public class BudgetController {
         }
     }
 
-    // SIMPLIFIED: Get budgets by category
+    // Live budget alerts as Server-Sent Events (replaces polling /summary)
+    @GetMapping(value = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        Long userId = requesterId();
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid gateway identity");
+        }
+
+        return alertStreamService.subscribe(userId, lastEventId);
+    }
+
+    // List categories with their parent (e.g. GROCERIES -> FOOD)
+    @GetMapping("/categories")
+    public ResponseEntity<?> getCategories() {
+        List<Map<String, Object>> categories = new ArrayList<>();
+        categoryDictionary.getAll().forEach((id, name) -> {
+            Map<String, Object> category = new HashMap<>();
+            Integer parentId = categoryDictionary.getParentId(id);
+            category.put("id", id);
+            category.put("name", name);
+            category.put("parent", parentId != null ? categoryDictionary.getName(parentId) : null);
+            categories.add(category);
+        });
+        return ResponseEntity.ok(categories);
+    }
+
+    // Define a (sub-)category for the caller, e.g. {"name": "COFFEE", "parent": "RESTAURANTS"};
+    // counts towards the caller's categories.max-per-user
+    @PostMapping("/categories")
+    public ResponseEntity<?> createCategory(@RequestBody Map<String, Object> request) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
+        try {
+            String name = (String) request.get("name");
+            String parent = (String) request.get("parent");
+
+            Integer id = categoryDictionary.createCategory(name, parent, userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Category created successfully");
+            response.put("id", id);
+            response.put("name", categoryDictionary.getName(id));
+            response.put("parent", parent != null ? CategoryDictionary.normalize(parent) : null);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Budgets of the authenticated caller in one category
     @GetMapping("/category/{category}")
-    public ResponseEntity<?> getBudgetsByCategory(
-            @PathVariable String category,
-            @RequestParam Long userId) {
+    public ResponseEntity<?> getBudgetsByCategory(@PathVariable String category) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
 
         try {
             List<Budget> budgets = budgetService.getBudgetsByCategory(userId, category);
@@ -224,17 +423,29 @@ public class BudgetController {
         }
     }
 
+    // Called by transaction-service with the user's identity (re-signed for this call)
     @PostMapping("/add-spending")
     public ResponseEntity<?> addSpendingFromTransaction(@RequestBody Map<String, Object> request) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
         try {
-            Long userId = Long.valueOf(request.get("userId").toString());
-            String category = (String) request.get("category");
+            String category = categoryOf(request);
             Double amount = Double.valueOf(request.get("amount").toString());
 
-            Budget updatedBudget = budgetService.addSpending(userId, category, amount);
+            // Optional transaction date for back-dated spending (defaults to today)
+            LocalDate date = request.containsKey("date")
+                    ? LocalDate.parse(request.get("date").toString())
+                    : LocalDate.now();
+
+            // Most specific budget first, followed by parent category budgets
+            List<Budget> updatedBudgets = budgetService.applySpending(userId, category, amount, date);
 
             Map<String, Object> response = new HashMap<>();
-            if (updatedBudget != null) {
+            if (!updatedBudgets.isEmpty()) {
+                Budget updatedBudget = updatedBudgets.get(0);
                 response.put("success", true);
                 response.put("budgetId", updatedBudget.getId());
                 response.put("category", updatedBudget.getCategory());
@@ -242,6 +453,7 @@ public class BudgetController {
                 response.put("remaining", updatedBudget.getRemaining());
                 response.put("status", updatedBudget.getStatus());
                 response.put("isExceeded", updatedBudget.isExceeded());
+                response.put("affectedBudgetIds", updatedBudgets.stream().map(Budget::getId).toList());
             } else {
                 response.put("success", false);
                 response.put("message", "No active budget found for this category");
@@ -260,9 +472,13 @@ public class BudgetController {
     // Endpoint for transaction service to check transaction
     @PostMapping("/check-transaction")
     public ResponseEntity<?> checkTransactionFromService(@RequestBody Map<String, Object> request) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
         try {
-            Long userId = Long.valueOf(request.get("userId").toString());
-            String category = (String) request.get("category");
+            String category = categoryOf(request);
             Double amount = Double.valueOf(request.get("amount").toString());
 
             Map<String, Object> checkResult = budgetService.checkTransactionAgainstBudget(
@@ -275,4 +491,55 @@ public class BudgetController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
+
+    // Batch version of check-transaction: {"items": [{"category": "FOOD", "amount": 12.5}, ...]}
+    @PostMapping("/check-transactions")
+    public ResponseEntity<?> checkTransactionsBatch(@RequestBody Map<String, Object> request) {
+        Long userId = requesterId();
+        if (userId == null) {
+            return unauthenticated();
+        }
+
+        try {
+            Object rawItems = request.get("items");
+            if (!(rawItems instanceof List)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "items must be a list of {category, amount}"));
+            }
+
+            // Items are validated one by one; malformed ones get an error in their result
+            List<?> items = (List<?>) rawItems;
+
+            if (items.size() > MAX_BATCH_ITEMS) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "At most " + MAX_BATCH_ITEMS + " items per request"));
+            }
+
+            return ResponseEntity.ok(budgetService.checkTransactionsAgainstBudgets(userId, items));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Helper method: user id authenticated by the gateway (signed X-User-* headers), or null.
+    // Never taken from the body or query string.
+    private Long requesterId() {
+        GatewayIdentity identity = gatewayIdentityVerifier.currentIdentity();
+        return identity != null ? identity.getUserId() : null;
+    }
+
+    private ResponseEntity<?> unauthenticated() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "Missing or invalid gateway identity"));
+    }
+
+    // Helper method: category sent by name, or by dictionary id from other services
+    private String categoryOf(Map<String, Object> request) {
+        if (request.get("categoryId") != null) {
+            return categoryDictionary.getName(Integer.valueOf(request.get("categoryId").toString()));
+        }
+        return (String) request.get("category");
+    }
 }
\ No newline at end of file
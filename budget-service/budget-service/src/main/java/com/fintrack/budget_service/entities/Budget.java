@@ -1,10 +1,14 @@
 package com.fintrack.budget_service.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "budgets")
+@DynamicUpdate  // Spend velocity updates must not rewrite 'spent' (maintained by an atomic UPDATE)
+@Table(name = "budgets", indexes = {
+        @Index(name = "idx_budgets_user_category", columnList = "user_id, category_id")
+})
 public class Budget {
 
     @Id
@@ -15,7 +19,10 @@ public class Budget {
     private Long userId;  // Extracted from JWT token
 
     @Column(nullable = false)
-    private String category;
+    private String category;  // Display name (normalized), lookups use categoryId
+
+    @Column(name = "category_id", columnDefinition = "SMALLINT")
+    private Integer categoryId;  // Id in the shared categories dictionary
 
     @Column(nullable = false)
     private Double amount;
@@ -37,6 +44,19 @@ public class Budget {
 
     private String description;
 
+    // Spend velocity, updated on every spend (see BurnRateForecaster)
+    @Column(name = "spend_ewma")
+    private Double spendEwma;  // EWMA of daily spend over closed days
+
+    @Column(name = "spend_day_total")
+    private Double spendDayTotal;  // Spend on lastSpendDate so far (day not closed yet)
+
+    @Column(name = "last_spend_date")
+    private LocalDate lastSpendDate;
+
+    @Column(name = "peak_usage")
+    private Double peakUsage;  // Highest usage % seen this period (amount can change later)
+
     @Column(name = "created_at", nullable = false)
     private LocalDate createdAt;
 
@@ -81,6 +101,14 @@ public class Budget {
         this.category = category;
     }
 
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
     public Double getAmount() {
         return amount;
     }
@@ -137,6 +165,38 @@ public class Budget {
         this.description = description;
     }
 
+    public Double getSpendEwma() {
+        return spendEwma;
+    }
+
+    public void setSpendEwma(Double spendEwma) {
+        this.spendEwma = spendEwma;
+    }
+
+    public Double getSpendDayTotal() {
+        return spendDayTotal;
+    }
+
+    public void setSpendDayTotal(Double spendDayTotal) {
+        this.spendDayTotal = spendDayTotal;
+    }
+
+    public LocalDate getLastSpendDate() {
+        return lastSpendDate;
+    }
+
+    public void setLastSpendDate(LocalDate lastSpendDate) {
+        this.lastSpendDate = lastSpendDate;
+    }
+
+    public Double getPeakUsage() {
+        return peakUsage;
+    }
+
+    public void setPeakUsage(Double peakUsage) {
+        this.peakUsage = peakUsage;
+    }
+
     public LocalDate getCreatedAt() {
         return createdAt;
     }
@@ -163,6 +223,14 @@ public class Budget {
         return (spent / amount) * 100;
     }
 
+    // Raise peakUsage to the current usage if higher
+    public void recordPeakUsage() {
+        double usage = getUsagePercentage();
+        if (peakUsage == null || usage > peakUsage) {
+            peakUsage = usage;
+        }
+    }
+
     public Boolean isExceeded() {
         return spent > amount;
     }
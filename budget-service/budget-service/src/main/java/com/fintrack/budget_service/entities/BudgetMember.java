@@ -0,0 +1,74 @@
+package com.fintrack.budget_service.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// A user who shares a budget owned by someone else (e.g. a household grocery budget)
+@Entity
+@Table(name = "budget_members",
+        uniqueConstraints = @UniqueConstraint(name = "uk_budget_members_budget_user", columnNames = {"budget_id", "user_id"}),
+        indexes = @Index(name = "idx_budget_members_user", columnList = "user_id"))
+public class BudgetMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "added_by", nullable = false)
+    private Long addedBy;  // Budget owner who shared it
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDate createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDate.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    public void setBudgetId(Long budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getAddedBy() {
+        return addedBy;
+    }
+
+    public void setAddedBy(Long addedBy) {
+        this.addedBy = addedBy;
+    }
+
+    public LocalDate getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDate createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,177 @@
+package com.fintrack.budget_service.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDate;
+
+// Final figures of a closed budget period, written once when the period ends.
+// Historical reports read these compact rows instead of recomputing live budgets.
+@Entity
+@Immutable
+@Table(name = "budget_period_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_budget_period_snapshots_budget", columnNames = "budget_id"),
+        indexes = @Index(name = "idx_budget_period_snapshots_user_category_start",
+                columnList = "user_id, category_id, period_start"))
+public class BudgetPeriodSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;  // One snapshot per budget period
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", columnDefinition = "SMALLINT")
+    private Integer categoryId;
+
+    @Column(nullable = false)
+    private String category;  // Name at close time
+
+    @Column(nullable = false)
+    private String period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(nullable = false)
+    private Double spent;
+
+    @Column(name = "usage_percentage", nullable = false)
+    private Double usagePercentage;
+
+    @Column(name = "peak_usage_percentage", nullable = false)
+    private Double peakUsagePercentage;
+
+    @Column(name = "final_status", nullable = false)
+    private String finalStatus;  // "COMPLETED" or "EXCEEDED"
+
+    @Column(name = "closed_at", nullable = false)
+    private LocalDate closedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        closedAt = LocalDate.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    public void setBudgetId(Long budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(LocalDate periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public Double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(Double spent) {
+        this.spent = spent;
+    }
+
+    public Double getUsagePercentage() {
+        return usagePercentage;
+    }
+
+    public void setUsagePercentage(Double usagePercentage) {
+        this.usagePercentage = usagePercentage;
+    }
+
+    public Double getPeakUsagePercentage() {
+        return peakUsagePercentage;
+    }
+
+    public void setPeakUsagePercentage(Double peakUsagePercentage) {
+        this.peakUsagePercentage = peakUsagePercentage;
+    }
+
+    public String getFinalStatus() {
+        return finalStatus;
+    }
+
+    public void setFinalStatus(String finalStatus) {
+        this.finalStatus = finalStatus;
+    }
+
+    public LocalDate getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDate closedAt) {
+        this.closedAt = closedAt;
+    }
+}
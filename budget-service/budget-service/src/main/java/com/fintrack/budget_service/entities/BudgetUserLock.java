@@ -0,0 +1,60 @@
+package com.fintrack.budget_service.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// One row per user, locked (SELECT ... FOR UPDATE) while a budget of that user is
+// created, moved or deleted, so the overlap check and the write are serialized in the
+// database across all budget-service instances until the transaction commits.
+// budgetsVersion is bumped by each of those writes (BudgetIntervalIndex staleness check).
+@Entity
+@Table(name = "budget_user_locks")
+public class BudgetUserLock {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDate createdAt;
+
+    @Column(name = "budgets_version", nullable = false)
+    private long budgetsVersion;
+
+    public BudgetUserLock() {
+    }
+
+    public BudgetUserLock(Long userId) {
+        this.userId = userId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDate.now();
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDate createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getBudgetsVersion() {
+        return budgetsVersion;
+    }
+
+    public void setBudgetsVersion(long budgetsVersion) {
+        this.budgetsVersion = budgetsVersion;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fintrack.budget_service.repository;
+
+import com.fintrack.budget_service.entities.BudgetMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BudgetMemberRepository extends JpaRepository<BudgetMember, Long> {
+
+    // Members of a shared budget
+    List<BudgetMember> findByBudgetId(Long budgetId);
+
+    // Budgets shared with a user
+    List<BudgetMember> findByUserId(Long userId);
+
+    boolean existsByBudgetIdAndUserId(Long budgetId, Long userId);
+
+    long deleteByBudgetIdAndUserId(Long budgetId, Long userId);
+}
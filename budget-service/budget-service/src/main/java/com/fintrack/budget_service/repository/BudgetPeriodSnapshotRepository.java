@@ -0,0 +1,19 @@
+package com.fintrack.budget_service.repository;
+
+import com.fintrack.budget_service.entities.BudgetPeriodSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BudgetPeriodSnapshotRepository extends JpaRepository<BudgetPeriodSnapshot, Long> {
+
+    // Range reads on (user_id, category_id, period_start)
+    List<BudgetPeriodSnapshot> findByUserIdAndCategoryIdAndPeriodStartBetweenOrderByPeriodStartAsc(
+            Long userId, Integer categoryId, LocalDate from, LocalDate to);
+
+    List<BudgetPeriodSnapshot> findByUserIdAndPeriodStartBetweenOrderByPeriodStartAsc(
+            Long userId, LocalDate from, LocalDate to);
+}
@@ -1,7 +1,11 @@
 package com.fintrack.budget_service.repository;
 
 import com.fintrack.budget_service.entities.Budget;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,8 +20,26 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     // Find budgets by user ID
     List<Budget> findByUserId(Long userId);
 
+    // Budgets owned by a user plus budgets shared with them
+    @Query("SELECT b FROM Budget b WHERE b.userId = :userId " +
+            "OR b.id IN (SELECT m.budgetId FROM BudgetMember m WHERE m.userId = :userId)")
+    List<Budget> findOwnedOrSharedBudgets(@Param("userId") Long userId);
+
     // Find budgets by user ID and category
-    List<Budget> findByUserIdAndCategory(Long userId, String category);
+    List<Budget> findByUserIdAndCategoryId(Long userId, Integer categoryId);
+
+    // Legacy rows created before the category dictionary existed
+    List<Budget> findByCategoryIdIsNull();
+
+    // Budgets of a category overlapping [startDate, endDate), same semantics as BudgetIntervalIndex
+    @Query("SELECT b.id FROM Budget b WHERE b.userId = :userId AND b.categoryId = :categoryId " +
+            "AND b.status <> 'INACTIVE' AND b.startDate < :endDate AND b.endDate > :startDate " +
+            "AND b.id <> :excludeId")
+    List<Long> findOverlappingBudgetIds(@Param("userId") Long userId,
+                                        @Param("categoryId") Integer categoryId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate,
+                                        @Param("excludeId") Long excludeId);
 
     // Find active budgets for a user
     List<Budget> findByUserIdAndStatus(Long userId, String status);
@@ -26,12 +48,33 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     @Query("SELECT b FROM Budget b WHERE b.userId = :userId AND b.startDate <= :currentDate AND b.endDate >= :currentDate AND b.status = 'ACTIVE'")
     List<Budget> findActiveBudgets(@Param("userId") Long userId, @Param("currentDate") LocalDate currentDate);
 
-    // Find budget for specific category and period
-    @Query("SELECT b FROM Budget b WHERE b.userId = :userId AND b.category = :category AND b.startDate <= :date AND b.endDate >= :date")
-    Optional<Budget> findCurrentBudgetForCategory(
-            @Param("userId") Long userId,
-            @Param("category") String category,
-            @Param("date") LocalDate date);
+    // Apply one spend to several budgets in a single statement (a category and its ancestors).
+    // status is assigned first: MySQL evaluates SET left to right, so b.spent is still the old value there.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Budget b SET " +
+            "b.status = CASE WHEN b.spent + :amount > b.amount THEN 'EXCEEDED' ELSE b.status END, " +
+            "b.spent = b.spent + :amount, " +
+            "b.updatedAt = :today " +
+            "WHERE b.id IN :ids")
+    int addSpendingToBudgets(@Param("ids") List<Long> ids,
+                             @Param("amount") Double amount,
+                             @Param("today") LocalDate today);
+
+    // Ended periods that have no snapshot yet (oldest first)
+    @Query("SELECT b FROM Budget b WHERE b.endDate < :today AND b.status <> 'INACTIVE' " +
+            "AND NOT EXISTS (SELECT s.id FROM BudgetPeriodSnapshot s WHERE s.budgetId = b.id) " +
+            "ORDER BY b.id")
+    List<Budget> findBudgetsToClose(@Param("today") LocalDate today, Pageable pageable);
+
+    // Re-read a budget with its row locked (SELECT ... FOR UPDATE) until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Budget b WHERE b.id = :id")
+    Optional<Budget> lockById(@Param("id") Long id);
+
+    // Period close: only the status column, and only if the budget is still ACTIVE
+    @Modifying
+    @Query("UPDATE Budget b SET b.status = :status WHERE b.id = :id AND b.status = 'ACTIVE'")
+    int closeActiveBudget(@Param("id") Long id, @Param("status") String status);
 
     // Find exceeded budgets
     @Query("SELECT b FROM Budget b WHERE b.userId = :userId AND b.spent > b.amount")
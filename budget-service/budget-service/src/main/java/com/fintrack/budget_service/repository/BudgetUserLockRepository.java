@@ -0,0 +1,29 @@
+package com.fintrack.budget_service.repository;
+
+import com.fintrack.budget_service.entities.BudgetUserLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BudgetUserLockRepository extends JpaRepository<BudgetUserLock, Long> {
+
+    // SELECT ... FOR UPDATE: held until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM BudgetUserLock l WHERE l.userId = :userId")
+    Optional<BudgetUserLock> lockByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE BudgetUserLock l SET l.budgetsVersion = l.budgetsVersion + 1 WHERE l.userId = :userId")
+    int incrementBudgetsVersion(@Param("userId") Long userId);
+
+    // Primary key read on every index lookup
+    @Query("SELECT l.budgetsVersion FROM BudgetUserLock l WHERE l.userId = :userId")
+    Optional<Long> findBudgetsVersion(@Param("userId") Long userId);
+}
@@ -0,0 +1,147 @@
+package com.fintrack.budget_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Relays alerts to the other budget-service replicas registered in Eureka, so a
+// user's stream receives alerts no matter which replica handled the spending.
+// Best effort: sends are asynchronous and bounded, and an alert that cannot be
+// relayed is dropped (the client still sees it in /summary).
+@Service
+public class AlertRelay {
+
+    public static final String SECRET_HEADER = "X-Relay-Secret";
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Value("${spring.application.name}")
+    private String serviceId;
+
+    @Value("${eureka.instance.instance-id}")
+    private String selfInstanceId;
+
+    @Value("${budget.alerts.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${budget.alerts.relay.secret:}")
+    private String secret;
+
+    @Value("${budget.alerts.relay.timeout-ms:1000}")
+    private int timeoutMs;
+
+    @Value("${budget.alerts.relay.queue-size:1000}")
+    private int queueSize;
+
+    // Peers are addressed directly, not through the load balancer
+    private RestClient restClient;
+    private ThreadPoolExecutor senders;
+
+    // Metrics
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("budget.alerts.relay.secret must be set when the alert relay is enabled");
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        AtomicLong counter = new AtomicLong();
+        senders = new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "alert-relay-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    public void send(Long userId, long eventId, String eventName, Map<String, Object> payload) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("userId", userId);
+        message.put("eventId", eventId);
+        message.put("name", eventName);
+        message.put("payload", payload);
+
+        try {
+            senders.execute(() -> sendToPeers(message));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    // Returns false if the sender did not present the shared secret
+    public boolean accepts(String presentedSecret) {
+        if (!enabled || presentedSecret == null || !MessageDigest.isEqual(
+                presentedSecret.getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8))) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("relayed", relayed.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("rejected", rejected.sum());
+        return metrics;
+    }
+
+    private void sendToPeers(Map<String, Object> message) {
+        List<ServiceInstance> peers = discoveryClient.getInstances(serviceId).stream()
+                .filter(instance -> !selfInstanceId.equals(instance.getInstanceId()))
+                .toList();
+
+        for (ServiceInstance peer : peers) {
+            try {
+                restClient.post()
+                        .uri(peer.getUri() + "/internal/alerts/relay")
+                        .header(SECRET_HEADER, secret)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(message)
+                        .retrieve()
+                        .toBodilessEntity();
+                relayed.increment();
+            } catch (Exception e) {
+                failures.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.fintrack.budget_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Streams are held by the replica the client connected to. Alerts raised on any
+// replica are relayed to the others (AlertRelay), so a user is reached wherever
+// their stream lives; replay on reconnect only covers what the replica that
+// takes the new connection has seen.
+@Service
+public class AlertStreamService {
+
+    @Autowired
+    private AlertRelay alertRelay;
+
+    @Value("${budget.alerts.stream.timeout-ms:0}")
+    private long emitterTimeoutMs;  // 0 = never time out, clients reconnect with Last-Event-ID
+
+    @Value("${budget.alerts.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${budget.alerts.stream.buffer-size:64}")
+    private int bufferSize;  // pending events per connection before it is dropped
+
+    @Value("${budget.alerts.stream.replay-size:100}")
+    private int replaySize;  // recent events kept per user for Last-Event-ID resume
+
+    @Value("${budget.alerts.stream.replay-retention-seconds:300}")
+    private long replayRetentionSeconds;  // how long a channel outlives its last stream, for reconnects
+
+    @Value("${budget.alerts.stream.sender-threads:4}")
+    private int senderThreads;
+
+    // Seeded with the clock so ids keep increasing across restarts
+    private final AtomicLong eventSequence = new AtomicLong(System.currentTimeMillis());
+
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+
+    private ExecutorService senders;
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void init() {
+        senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("alert-stream-sender"));
+        heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("alert-stream-heartbeat"));
+        heartbeat.scheduleAtFixedRate(() -> {
+            sendHeartbeats();
+            pruneIdleChannels();
+        }, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+    }
+
+    // Open a new stream for a user, replaying anything newer than lastEventId
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        long resumeFrom = parseEventId(lastEventId);
+
+        // Registration and replay happen under the channel lock so no event is missed or duplicated.
+        // A channel pruned between lookup and lock is discarded and looked up again.
+        while (true) {
+            UserChannel channel = channels.computeIfAbsent(userId, id -> new UserChannel());
+            synchronized (channel) {
+                if (channel.removed) {
+                    continue;
+                }
+                channel.subscribers.add(subscriber);
+                if (resumeFrom >= 0) {
+                    for (AlertEvent event : channel.history) {
+                        if (event.id > resumeFrom && !subscriber.offer(event)) {
+                            break;
+                        }
+                    }
+                }
+            }
+            break;
+        }
+
+        subscriber.schedule();
+        return emitter;
+    }
+
+    // Fan an alert out to every open stream of the user, on this replica and its peers
+    public void publish(Long userId, String eventName, Map<String, Object> payload) {
+        long eventId = eventSequence.incrementAndGet();
+        deliver(userId, eventId, eventName, payload);
+        alertRelay.send(userId, eventId, eventName, payload);
+    }
+
+    // Local fan-out of an event published here or relayed by a peer (keeping the peer's id)
+    public void deliver(Long userId, long eventId, String eventName, Map<String, Object> payload) {
+        // Keep ids increasing across replicas so Last-Event-ID stays meaningful after a reconnect elsewhere
+        eventSequence.accumulateAndGet(eventId, Math::max);
+
+        // Nobody is listening (and nobody recently was): nothing to deliver or keep for replay
+        UserChannel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+
+        synchronized (channel) {
+            if (channel.removed) {
+                return;
+            }
+            AlertEvent event = new AlertEvent(eventId, eventName, payload);
+
+            channel.history.addLast(event);
+            while (channel.history.size() > replaySize) {
+                channel.history.removeFirst();
+            }
+
+            for (Subscriber subscriber : channel.subscribers) {
+                if (!subscriber.offer(event)) {
+                    subscriber.close();
+                }
+            }
+        }
+
+        channel.subscribers.forEach(Subscriber::schedule);
+    }
+
+    // Number of open streams (all users)
+    public int getConnectionCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    private void sendHeartbeats() {
+        for (UserChannel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                if (subscriber.offer(AlertEvent.HEARTBEAT)) {
+                    subscriber.schedule();
+                } else {
+                    subscriber.close();
+                }
+            }
+        }
+    }
+
+    // Channels without streams are kept for the replay window, then dropped
+    private void pruneIdleChannels() {
+        long cutoff = System.currentTimeMillis() - replayRetentionSeconds * 1000;
+        channels.forEach((userId, channel) -> {
+            synchronized (channel) {
+                if (channel.subscribers.isEmpty() && channel.idleSince <= cutoff) {
+                    channel.removed = true;
+                    channels.remove(userId, channel);
+                }
+            }
+        });
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        UserChannel channel = channels.get(subscriber.userId);
+        if (channel != null) {
+            synchronized (channel) {
+                if (channel.subscribers.remove(subscriber) && channel.subscribers.isEmpty()) {
+                    channel.idleSince = System.currentTimeMillis();
+                }
+            }
+        }
+    }
+
+    private long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Per-user subscribers and recent events (the object itself is the per-user lock)
+    private static final class UserChannel {
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        final Deque<AlertEvent> history = new ArrayDeque<>();
+        long idleSince = Long.MAX_VALUE;  // when the last stream closed
+        boolean removed;
+    }
+
+    private static final class AlertEvent {
+        static final AlertEvent HEARTBEAT = new AlertEvent(-1, null, null);
+
+        final long id;
+        final String name;
+        final Map<String, Object> payload;
+
+        AlertEvent(long id, String name, Map<String, Object> payload) {
+            this.id = id;
+            this.name = name;
+            this.payload = payload;
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name(name)
+                    .data(payload, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    // One open connection with its own bounded buffer, drained on the sender pool
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<AlertEvent> buffer;
+        final AtomicBoolean draining = new AtomicBoolean(false);
+        final AtomicBoolean closed = new AtomicBoolean(false);
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // Returns false when the buffer is full, i.e. the client is too slow
+        boolean offer(AlertEvent event) {
+            return !closed.get() && buffer.offer(event);
+        }
+
+        void schedule() {
+            if (!closed.get() && !buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                AlertEvent event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            schedule();
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                unregister(this);
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed
+                }
+            }
+        }
+    }
+}
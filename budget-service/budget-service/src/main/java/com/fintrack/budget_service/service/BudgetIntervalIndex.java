@@ -0,0 +1,165 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.repository.BudgetRepository;
+import com.fintrack.budget_service.repository.BudgetUserLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory index of budget date intervals per (user, category id).
+// Each category keeps its budgets sorted by start date so "which budget covers
+// date X" is a binary search. Intervals are treated as [startDate, endDate):
+// calculateEndDate returns the first day of the next period, so back-to-back
+// periods do not overlap. On the boundary day the new period wins; if there is
+// no next period the old one still covers its endDate (legacy inclusive end).
+// A user's snapshot is immutable and tagged with the budgets version of the user's
+// lock row (bumped by every budget write, see BudgetUserLocks). Each lookup reads that
+// version by primary key and rebuilds an older snapshot, so writes committed on any
+// instance are seen on the next lookup.
+@Component
+public class BudgetIntervalIndex {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetUserLockRepository lockRepository;
+
+    private final Map<Long, UserIntervals> users = new ConcurrentHashMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public BudgetIntervalIndex() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Current snapshot of a user's budgets (one version read, rebuilt if out of date)
+    public UserIntervals forUser(Long userId) {
+        // No lock row yet: the user has never written a budget through this service
+        long version = lockRepository.findBudgetsVersion(userId).orElse(0L);
+        UserIntervals intervals = users.get(userId);
+        if (intervals == null || intervals.version < version) {
+            synchronized (lockFor(userId)) {
+                intervals = users.get(userId);
+                if (intervals == null || intervals.version < version) {
+                    intervals = load(userId, version);
+                    users.put(userId, intervals);
+                }
+            }
+        }
+        return intervals;
+    }
+
+    // Drop a user's snapshot; it is rebuilt from the database on next lookup
+    public void invalidate(Long userId) {
+        users.remove(userId);
+    }
+
+    // Lock guarding snapshot rebuilds for one user (striped, not global)
+    private Object lockFor(Long userId) {
+        return locks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)];
+    }
+
+    // The version is read before the budgets, so the snapshot is at least as new as its tag
+    private UserIntervals load(Long userId, long version) {
+        Map<Integer, CategoryIntervals> loaded = new HashMap<>();
+        for (Budget budget : budgetRepository.findByUserId(userId)) {
+            if (isIndexed(budget)) {
+                loaded.put(budget.getCategoryId(),
+                        loaded.getOrDefault(budget.getCategoryId(), CategoryIntervals.EMPTY).with(budget));
+            }
+        }
+        return new UserIntervals(version, Collections.unmodifiableMap(loaded));
+    }
+
+    private boolean isIndexed(Budget budget) {
+        // Legacy rows without a category id are picked up after CategoryBackfillRunner
+        return budget.getCategoryId() != null && !"INACTIVE".equals(budget.getStatus());
+    }
+
+    // One user's budgets by category, as of a budgets version
+    public static final class UserIntervals {
+
+        private final long version;
+        private final Map<Integer, CategoryIntervals> categories;
+
+        private UserIntervals(long version, Map<Integer, CategoryIntervals> categories) {
+            this.version = version;
+            this.categories = categories;
+        }
+
+        // Id of the budget effective for the category on a date, or null
+        public Long findBudgetId(Integer categoryId, LocalDate date) {
+            CategoryIntervals intervals = categories.get(categoryId);
+            return intervals == null ? null : intervals.find(date.toEpochDay());
+        }
+    }
+
+    // Immutable sorted interval arrays for one (user, category)
+    static final class CategoryIntervals {
+
+        static final CategoryIntervals EMPTY = new CategoryIntervals(new long[0], new long[0], new long[0]);
+
+        private final long[] starts;  // epoch days, ascending
+        private final long[] ends;
+        private final long[] ids;
+
+        private CategoryIntervals(long[] starts, long[] ends, long[] ids) {
+            this.starts = starts;
+            this.ends = ends;
+            this.ids = ids;
+        }
+
+        Long find(long day) {
+            int i = lastStartingAtOrBefore(day);
+            if (i < 0 || day > ends[i]) {
+                return null;
+            }
+            return ids[i];
+        }
+
+        CategoryIntervals with(Budget budget) {
+            long start = budget.getStartDate().toEpochDay();
+            int pos = lastStartingAtOrBefore(start) + 1;
+            int n = ids.length;
+
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            long[] newIds = new long[n + 1];
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            newStarts[pos] = start;
+            newEnds[pos] = budget.getEndDate().toEpochDay();
+            newIds[pos] = budget.getId();
+            System.arraycopy(starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, n - pos);
+            System.arraycopy(ids, pos, newIds, pos + 1, n - pos);
+            return new CategoryIntervals(newStarts, newEnds, newIds);
+        }
+
+        // Index of the last interval whose start <= day, or -1
+        private int lastStartingAtOrBefore(long day) {
+            int i = Arrays.binarySearch(starts, day);
+            if (i >= 0) {
+                // Several intervals may share a start day: take the last one
+                while (i + 1 < starts.length && starts[i + 1] == day) {
+                    i++;
+                }
+                return i;
+            }
+            return -i - 2;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.entities.BudgetMember;
+import com.fintrack.budget_service.repository.BudgetMemberRepository;
+import com.fintrack.budget_service.repository.BudgetRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Membership of shared budgets. Access checks (isMember) read the database.
+// The spend path and alert fan-out use per-budget and per-user caches that are
+// dropped after each committed change on this instance and expire after a short
+// TTL, so changes made on another instance are picked up within cache-ttl-ms.
+// Both caches are bounded.
+@Service
+public class BudgetMemberService {
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetMemberRepository budgetMemberRepository;
+
+    @Value("${budget.members.cache-ttl-ms:5000}")
+    private long cacheTtlMs;
+
+    @Value("${budget.members.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // budgetId -> member user ids (owner not included)
+    private ExpiringCache<Long, List<Long>> membersByBudget;
+
+    // userId -> (shared budgetId -> owner userId)
+    private ExpiringCache<Long, Map<Long, Long>> sharedBudgetsByUser;
+
+    @PostConstruct
+    public void init() {
+        membersByBudget = new ExpiringCache<>(cacheTtlMs, cacheMaxEntries);
+        sharedBudgetsByUser = new ExpiringCache<>(cacheTtlMs, cacheMaxEntries);
+    }
+
+    // Share a budget with another user (owner only)
+    @Transactional
+    public BudgetMember addMember(Long budgetId, Long ownerId, Long memberId) {
+        Budget budget = getOwnedBudget(budgetId, ownerId);
+
+        if (budget.getUserId().equals(memberId)) {
+            throw new RuntimeException("The owner is already part of this budget");
+        }
+        if (budgetMemberRepository.existsByBudgetIdAndUserId(budgetId, memberId)) {
+            throw new RuntimeException("User " + memberId + " is already a member of this budget");
+        }
+
+        BudgetMember member = new BudgetMember();
+        member.setBudgetId(budgetId);
+        member.setUserId(memberId);
+        member.setAddedBy(ownerId);
+        BudgetMember savedMember = budgetMemberRepository.save(member);
+
+        evictAfterCommit(budgetId, memberId);
+        return savedMember;
+    }
+
+    // Remove a member (the owner, or the member leaving)
+    @Transactional
+    public void removeMember(Long budgetId, Long requesterId, Long memberId) {
+        Budget budget = budgetRepository.findById(budgetId)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+        if (!budget.getUserId().equals(requesterId) && !requesterId.equals(memberId)) {
+            throw new RuntimeException("Only the budget owner can remove other members");
+        }
+        if (budgetMemberRepository.deleteByBudgetIdAndUserId(budgetId, memberId) == 0) {
+            throw new RuntimeException("User " + memberId + " is not a member of this budget");
+        }
+
+        evictAfterCommit(budgetId, memberId);
+    }
+
+    // Member user ids of a budget (cached, up to cache-ttl-ms stale)
+    public List<Long> getMemberIds(Long budgetId) {
+        return membersByBudget.get(budgetId, id -> budgetMemberRepository.findByBudgetId(id)
+                .stream()
+                .map(BudgetMember::getUserId)
+                .toList());
+    }
+
+    // Access check: always read from the database, never from the caches
+    public boolean isMember(Long budgetId, Long userId) {
+        return budgetMemberRepository.existsByBudgetIdAndUserId(budgetId, userId);
+    }
+
+    // Budgets shared with a user, as budgetId -> owner userId (cached, up to cache-ttl-ms stale)
+    public Map<Long, Long> getSharedBudgets(Long userId) {
+        return sharedBudgetsByUser.get(userId, id -> {
+            List<Long> budgetIds = budgetMemberRepository.findByUserId(id)
+                    .stream()
+                    .map(BudgetMember::getBudgetId)
+                    .toList();
+
+            Map<Long, Long> owners = new HashMap<>();
+            for (Budget budget : budgetRepository.findAllById(budgetIds)) {
+                owners.put(budget.getId(), budget.getUserId());
+            }
+            return Collections.unmodifiableMap(owners);
+        });
+    }
+
+    private Budget getOwnedBudget(Long budgetId, Long ownerId) {
+        Budget budget = budgetRepository.findById(budgetId)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+        if (!budget.getUserId().equals(ownerId)) {
+            throw new RuntimeException("Only the budget owner can manage its members");
+        }
+        return budget;
+    }
+
+    private void evictAfterCommit(Long budgetId, Long memberId) {
+        Runnable evict = () -> {
+            membersByBudget.remove(budgetId);
+            sharedBudgetsByUser.remove(memberId);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    // Small TTL cache; when full, expired entries are dropped first, then arbitrary ones
+    private static final class ExpiringCache<K, V> {
+        private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+        private final long ttlMs;
+        private final int maxEntries;
+
+        ExpiringCache(long ttlMs, int maxEntries) {
+            this.ttlMs = ttlMs;
+            this.maxEntries = maxEntries;
+        }
+
+        V get(K key, Function<K, V> loader) {
+            long now = System.currentTimeMillis();
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                return entry.value;
+            }
+
+            V value = loader.apply(key);
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entries.put(key, new Entry<>(value, now + ttlMs));
+            return value;
+        }
+
+        void remove(K key) {
+            entries.remove(key);
+        }
+
+        private void evict(long now) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+            Iterator<K> keys = entries.keySet().iterator();
+            while (entries.size() >= maxEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
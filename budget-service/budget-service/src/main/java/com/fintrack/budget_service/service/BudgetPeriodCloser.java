@@ -0,0 +1,117 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.entities.BudgetPeriodSnapshot;
+import com.fintrack.budget_service.repository.BudgetPeriodSnapshotRepository;
+import com.fintrack.budget_service.repository.BudgetRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Closes ended budget periods: writes an immutable snapshot with the final figures
+// and marks still-ACTIVE budgets COMPLETED. Safe to run on several instances -
+// the unique budget_id on snapshots makes each close happen once.
+@Service
+public class BudgetPeriodCloser {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetPeriodCloser.class);
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetPeriodSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${budget.snapshots.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(initialDelayString = "${budget.snapshots.initial-delay-ms:60000}",
+            fixedDelayString = "${budget.snapshots.close-interval-ms:3600000}")
+    public void closeEndedPeriods() {
+        LocalDate today = LocalDate.now();
+        int closed = 0;
+
+        while (true) {
+            List<Budget> batch = budgetRepository.findBudgetsToClose(today, PageRequest.of(0, batchSize));
+            int closedInBatch = 0;
+            for (Budget budget : batch) {
+                if (close(budget)) {
+                    closedInBatch++;
+                }
+            }
+            closed += closedInBatch;
+
+            // A short batch is the last one; a batch with no progress would repeat forever
+            if (batch.size() < batchSize || closedInBatch == 0) {
+                break;
+            }
+        }
+
+        if (closed > 0) {
+            log.info("Budget periods closed: {}", closed);
+        }
+    }
+
+    // Snapshot and status change commit together; false if another instance got there first.
+    // The batch row is only a pointer: the figures come from the row re-read and locked inside
+    // the transaction, and only the status column is written, so a spend that landed after the
+    // batch query is neither missed in the snapshot nor overwritten.
+    private boolean close(Budget candidate) {
+        try {
+            return Boolean.TRUE.equals(newTransaction.execute(status -> {
+                Budget budget = budgetRepository.lockById(candidate.getId()).orElse(null);
+                if (budget == null || "INACTIVE".equals(budget.getStatus())) {
+                    return false;
+                }
+
+                snapshotRepository.save(toSnapshot(budget));
+                budgetRepository.closeActiveBudget(budget.getId(), budget.isExceeded() ? "EXCEEDED" : "COMPLETED");
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private BudgetPeriodSnapshot toSnapshot(Budget budget) {
+        double usage = budget.getUsagePercentage();
+
+        BudgetPeriodSnapshot snapshot = new BudgetPeriodSnapshot();
+        snapshot.setBudgetId(budget.getId());
+        snapshot.setUserId(budget.getUserId());
+        snapshot.setCategoryId(budget.getCategoryId());
+        snapshot.setCategory(budget.getCategory());
+        snapshot.setPeriod(budget.getPeriod());
+        snapshot.setPeriodStart(budget.getStartDate());
+        snapshot.setPeriodEnd(budget.getEndDate());
+        snapshot.setAmount(budget.getAmount());
+        snapshot.setSpent(budget.getSpent());
+        snapshot.setUsagePercentage(usage);
+        snapshot.setPeakUsagePercentage(budget.getPeakUsage() != null ? Math.max(usage, budget.getPeakUsage()) : usage);
+        snapshot.setFinalStatus(budget.isExceeded() ? "EXCEEDED" : "COMPLETED");
+        return snapshot;
+    }
+}
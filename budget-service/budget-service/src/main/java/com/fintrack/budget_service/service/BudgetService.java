@@ -1,10 +1,16 @@
 package com.fintrack.budget_service.service;
 
 import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.entities.BudgetPeriodSnapshot;
+import com.fintrack.budget_service.repository.BudgetPeriodSnapshotRepository;
 import com.fintrack.budget_service.repository.BudgetRepository;
+import com.fintrack.common.service.CategoryDictionary;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -12,32 +18,71 @@ import java.util.*;
 @Service
 public class BudgetService {
 
+    // Alert levels from least to most severe
+    private static final List<String> ALERT_LEVELS = List.of("NONE", "SAFE", "INFO", "WARNING", "FORECAST_EXCEED", "CRITICAL");
+
     @Autowired
     private BudgetRepository budgetRepository;
 
     @Autowired
     private NotificationService notificationService;  // ADD THIS
 
+    @Autowired
+    private BudgetPeriodSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private BudgetIntervalIndex budgetIntervalIndex;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private BudgetMemberService budgetMemberService;
+
+    @Autowired
+    private BudgetSpendLocks budgetSpendLocks;
+
+    @Autowired
+    private BudgetUserLocks budgetUserLocks;
+
+    @Autowired
+    private BurnRateForecaster burnRateForecaster;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     // Create a new budget
     @Transactional
     public Budget createBudget(Long userId, String category, Double amount,
                                String period, LocalDate startDate, String description) {
 
-        // Check if user already has a budget for this category in the current period
-        Optional<Budget> existingBudget = budgetRepository
-                .findCurrentBudgetForCategory(userId, category, LocalDate.now());
-
-        if (existingBudget.isPresent()) {
-            throw new RuntimeException("You already have an active budget for " + category);
-        }
+        // Category names are accepted in any case/spelling form, stored as dictionary ids
+        Integer categoryId = categoryDictionary.resolveId(category, userId);
+        category = categoryDictionary.getName(categoryId);
 
         // Calculate end date based on period
         LocalDate endDate = calculateEndDate(startDate, period);
 
+        // Overlap check and insert are atomic per user across instances: the user's lock
+        // row is held until commit, and the check reads the database, not this instance's index
+        budgetUserLocks.lock(userId);
+        if (hasOverlap(userId, categoryId, startDate, endDate, null)) {
+            throw new RuntimeException("You already have a budget for " + category +
+                    " overlapping " + startDate + " - " + endDate);
+        }
+
         // Create new budget
         Budget budget = new Budget();
         budget.setUserId(userId);
         budget.setCategory(category);
+        budget.setCategoryId(categoryId);
         budget.setAmount(amount);
         budget.setPeriod(period.toUpperCase());
         budget.setStartDate(startDate);
@@ -55,9 +100,9 @@ public class BudgetService {
         return savedBudget;
     }
 
-    // Get all budgets for a user
+    // Get all budgets for a user (own and shared with them)
     public List<Budget> getUserBudgets(Long userId) {
-        return budgetRepository.findByUserId(userId);
+        return budgetRepository.findOwnedOrSharedBudgets(userId);
     }
 
     // Get active budgets for a user
@@ -65,70 +110,156 @@ public class BudgetService {
         return budgetRepository.findActiveBudgets(userId, LocalDate.now());
     }
 
-    // Get budget by ID (with user validation)
+    // Get budget by ID (owner or member)
     public Budget getBudgetById(Long budgetId, Long userId) {
         Budget budget = budgetRepository.findById(budgetId)
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
 
-        if (!budget.getUserId().equals(userId)) {
+        if (!budget.getUserId().equals(userId) && !budgetMemberService.isMember(budgetId, userId)) {
             throw new RuntimeException("You don't have permission to access this budget");
         }
 
         return budget;
     }
 
+    // Get budget by ID for changes (owner only)
+    public Budget getOwnedBudget(Long budgetId, Long userId) {
+        Budget budget = budgetRepository.findById(budgetId)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+        if (!budget.getUserId().equals(userId)) {
+            throw new RuntimeException("Only the budget owner can change this budget");
+        }
+
+        return budget;
+    }
+
     // Update budget
     @Transactional
     public Budget updateBudget(Long budgetId, Long userId, String category,
                                Double amount, String period, String description) {
 
-        Budget budget = getBudgetById(budgetId, userId);
+        // Taken before reading the budget so the row cannot change under the check below
+        budgetUserLocks.lock(userId);
+        Budget budget = getOwnedBudget(budgetId, userId);
+
+        Integer newCategoryId = category != null
+                ? categoryDictionary.resolveId(category, userId)
+                : budget.getCategoryId();
+        String newCategory = categoryDictionary.getName(newCategoryId);
+
+        // Changing category or period moves the interval: it must not overlap another budget
+        // (checked in the database under the user's lock row, held until commit)
+        LocalDate newEndDate = period != null
+                ? calculateEndDate(budget.getStartDate(), period)
+                : budget.getEndDate();
+
+        if (hasOverlap(userId, newCategoryId, budget.getStartDate(), newEndDate, budget.getId())) {
+            throw new RuntimeException("You already have a budget for " + newCategory +
+                    " overlapping " + budget.getStartDate() + " - " + newEndDate);
+        }
 
         // Update fields
-        if (category != null) budget.setCategory(category);
+        if (category != null) {
+            budget.setCategory(newCategory);
+            budget.setCategoryId(newCategoryId);
+        }
         if (amount != null) budget.setAmount(amount);
         if (period != null) {
             budget.setPeriod(period.toUpperCase());
-            budget.setEndDate(calculateEndDate(budget.getStartDate(), period));
+            budget.setEndDate(newEndDate);
         }
         if (description != null) budget.setDescription(description);
 
         // Update status
         updateBudgetStatus(budget);
+        budget.recordPeakUsage();
 
         return budgetRepository.save(budget);
     }
 
     // Add spent amount to budget
-    @Transactional
     public Budget addSpending(Long userId, String category, Double amount) {
-        // Find active budget for this user and category
-        Optional<Budget> optionalBudget = budgetRepository
-                .findCurrentBudgetForCategory(userId, category, LocalDate.now());
+        return addSpending(userId, category, amount, LocalDate.now());
+    }
 
-        if (!optionalBudget.isPresent()) {
-            // No budget found for this category
-            return null;
-        }
+    // Add spent amount to the budget covering the given date (supports back-dated spend)
+    public Budget addSpending(Long userId, String category, Double amount, LocalDate date) {
+        List<Budget> updatedBudgets = applySpending(userId, category, amount, date);
 
-        Budget budget = optionalBudget.get();
-        return processSpending(budget, amount);
+        // Most specific budget first (e.g. GROCERIES before FOOD); null if no budget
+        return updatedBudgets.isEmpty() ? null : updatedBudgets.get(0);
     }
 
-    // Helper method
-    private Budget processSpending(Budget budget, Double amount) {
-        budget.setSpent(budget.getSpent() + amount);
+    // Spend on a category counts against its own budget and every ancestor budget,
+    // including budgets shared with the user. All affected budgets are updated with one
+    // statement while holding their striped locks, so concurrent members of a shared
+    // budget are serialized per budget and each sees exactly its own post-update totals.
+    // Returns the budgets most specific first; alerts go out after commit and unlock.
+    public List<Budget> applySpending(Long userId, String category, Double amount, LocalDate date) {
+        List<Long> budgetIds = findAffectedBudgetIds(userId, categoryDictionary.findId(category), date);
+        if (budgetIds.isEmpty()) {
+            // No budget found for this category or its parents
+            return new ArrayList<>();
+        }
 
-        // Update status if exceeded
-        updateBudgetStatus(budget);
+        List<Budget> updatedBudgets;
+        int[] held = budgetSpendLocks.lock(budgetIds);
+        try {
+            updatedBudgets = transactionTemplate.execute(status -> {
+                int updated = budgetRepository.addSpendingToBudgets(budgetIds, amount, LocalDate.now());
+                if (updated != budgetIds.size()) {
+                    // Index pointed at a budget that no longer exists
+                    budgetIntervalIndex.invalidate(userId);
+                }
+
+                Map<Long, Budget> byId = new HashMap<>();
+                for (Budget budget : budgetRepository.findAllById(budgetIds)) {
+                    byId.put(budget.getId(), budget);
+                }
+
+                List<Budget> budgets = new ArrayList<>();
+                for (Long budgetId : budgetIds) {
+                    Budget budget = byId.get(budgetId);
+                    if (budget != null) {
+                        budgets.add(budget);
+                    }
+                }
+
+                // Velocity statistics are updated in O(1) from the previous values; only the
+                // changed columns are flushed on commit (@DynamicUpdate), never 'spent'
+                for (Budget budget : budgets) {
+                    burnRateForecaster.recordSpend(budget, amount, date);
+                    budget.recordPeakUsage();
+                }
+                return budgets;
+            });
+        } finally {
+            budgetSpendLocks.unlock(held);
+        }
 
-        Budget updatedBudget = budgetRepository.save(budget);
+        for (Budget budget : updatedBudgets) {
+            processSpending(budget, amount);
+        }
+        return updatedBudgets;
+    }
 
+    // Helper method: alerts for a budget whose spent amount was just updated
+    // (the owner and every member of a shared budget are notified)
+    private void processSpending(Budget budget, Double amount) {
         // Send warnings/alerts if notification service exists
-        if (notificationService != null) {
-            if (updatedBudget.isExceeded()) {
+        if (notificationService == null) {
+            return;
+        }
+
+        List<Long> recipients = new ArrayList<>();
+        recipients.add(budget.getUserId());
+        recipients.addAll(budgetMemberService.getMemberIds(budget.getId()));
+
+        for (Long recipient : recipients) {
+            if (budget.isExceeded()) {
                 notificationService.sendBudgetExceededAlert(
-                        budget.getUserId(),
+                        recipient,
                         budget.getCategory(),
                         budget.getAmount(),
                         budget.getSpent(),
@@ -137,21 +268,32 @@ public class BudgetService {
             } else {
                 // Send warning if usage is high (80% or more)
                 notificationService.sendBudgetWarning(
-                        budget.getUserId(),
+                        recipient,
                         budget.getCategory(),
                         budget.getAmount(),
                         budget.getSpent()
                 );
             }
         }
+    }
 
-        return updatedBudget;
+    // Burn-rate forecast for a budget (owner or member)
+    public Map<String, Object> getBudgetForecast(Long budgetId, Long userId) {
+        Budget budget = getBudgetById(budgetId, userId);
+
+        LocalDate today = LocalDate.now();
+        Map<String, Object> forecast = burnRateForecaster.forecast(budget, today);
+        forecast.put("alertLevel", getAlertLevel(budget.getAmount(), budget.getRemaining(),
+                burnRateForecaster.alertProjection(budget, budget.getSpent(), today)));
+        return forecast;
     }
 
     // Delete (deactivate) budget
     @Transactional
     public void deleteBudget(Long budgetId, Long userId) {
-        Budget budget = getBudgetById(budgetId, userId);
+        // Bumps the user's budgets version: every instance's index drops the budget on commit
+        budgetUserLocks.lock(userId);
+        Budget budget = getOwnedBudget(budgetId, userId);
         budget.setStatus("INACTIVE");
         budgetRepository.save(budget);
     }
@@ -165,19 +307,22 @@ public class BudgetService {
         double totalBudget = 0;
         double totalSpent = 0;
         double totalRemaining = 0;
-        Map<String, Double> categorySummary = new HashMap<>();
-        Map<String, Double> categorySpent = new HashMap<>();
+        Map<Integer, Double> amountByCategoryId = new HashMap<>();
+        Map<Integer, Double> spentByCategoryId = new HashMap<>();
 
         for (Budget budget : allBudgets) {
             totalBudget += budget.getAmount();
             totalSpent += budget.getSpent();
             totalRemaining += budget.getRemaining();
 
-            // Category summary
-            categorySummary.merge(budget.getCategory(), budget.getAmount(), Double::sum);
-            categorySpent.merge(budget.getCategory(), budget.getSpent(), Double::sum);
+            // Category summary (aggregated on integer ids, named once at the end)
+            amountByCategoryId.merge(budget.getCategoryId(), budget.getAmount(), Double::sum);
+            spentByCategoryId.merge(budget.getCategoryId(), budget.getSpent(), Double::sum);
         }
 
+        Map<String, Double> categorySummary = toCategoryNames(amountByCategoryId);
+        Map<String, Double> categorySpent = toCategoryNames(spentByCategoryId);
+
         Map<String, Object> summary = new HashMap<>();
         summary.put("userId", userId);
         summary.put("totalBudgets", allBudgets.size());
@@ -189,6 +334,7 @@ public class BudgetService {
         summary.put("overallUsagePercentage", totalBudget > 0 ? (totalSpent / totalBudget) * 100 : 0);
         summary.put("categoryBudgets", categorySummary);
         summary.put("categorySpending", categorySpent);
+        summary.put("categoryHierarchy", buildCategoryHierarchy(amountByCategoryId, spentByCategoryId));
         summary.put("date", LocalDate.now().toString());
 
         // Add warnings
@@ -212,15 +358,62 @@ public class BudgetService {
         return summary;
     }
 
+    // Closed budget periods in [from, to] (by period start), optionally for one category.
+    // Reads the pre-computed snapshots only - live budgets are not touched.
+    public Map<String, Object> getBudgetHistory(Long userId, String category, LocalDate from, LocalDate to) {
+        List<BudgetPeriodSnapshot> periods;
+        if (category != null) {
+            Integer categoryId = categoryDictionary.findId(category);
+            periods = categoryId == null
+                    ? new ArrayList<>()
+                    : snapshotRepository.findByUserIdAndCategoryIdAndPeriodStartBetweenOrderByPeriodStartAsc(
+                            userId, categoryId, from, to);
+        } else {
+            periods = snapshotRepository.findByUserIdAndPeriodStartBetweenOrderByPeriodStartAsc(userId, from, to);
+        }
+
+        double totalBudget = 0;
+        double totalSpent = 0;
+        int exceededPeriods = 0;
+        Map<String, Map<String, Double>> spentByYear = new TreeMap<>();
+
+        for (BudgetPeriodSnapshot period : periods) {
+            totalBudget += period.getAmount();
+            totalSpent += period.getSpent();
+            if ("EXCEEDED".equals(period.getFinalStatus())) {
+                exceededPeriods++;
+            }
+            spentByYear.computeIfAbsent(String.valueOf(period.getPeriodStart().getYear()), year -> new TreeMap<>())
+                    .merge(period.getCategory(), period.getSpent(), Double::sum);
+        }
+
+        Map<String, Object> history = new HashMap<>();
+        history.put("userId", userId);
+        history.put("category", category != null ? CategoryDictionary.normalize(category) : null);
+        history.put("from", from.toString());
+        history.put("to", to.toString());
+        history.put("totalPeriods", periods.size());
+        history.put("exceededPeriods", exceededPeriods);
+        history.put("totalBudgetAmount", totalBudget);
+        history.put("totalSpent", totalSpent);
+        history.put("overallUsagePercentage", totalBudget > 0 ? (totalSpent / totalBudget) * 100 : 0);
+        history.put("spentByYear", spentByYear);
+        history.put("periods", periods);
+        return history;
+    }
+
     // Get budgets by category
     public List<Budget> getBudgetsByCategory(Long userId, String category) {
-        return budgetRepository.findByUserIdAndCategory(userId, category);
+        Integer categoryId = categoryDictionary.findId(category);
+        if (categoryId == null) {
+            return new ArrayList<>();
+        }
+        return budgetRepository.findByUserIdAndCategoryId(userId, categoryId);
     }
 
     // ADD THIS METHOD: Check transaction against budget
     public Map<String, Object> checkTransactionAgainstBudget(Long userId, String category, Double amount) {
-        Optional<Budget> optionalBudget = budgetRepository
-                .findCurrentBudgetForCategory(userId, category, LocalDate.now());
+        Optional<Budget> optionalBudget = findEffectiveBudget(userId, categoryDictionary.findId(category), LocalDate.now());
 
         Map<String, Object> result = new HashMap<>();
         result.put("hasBudget", false);
@@ -237,6 +430,7 @@ public class BudgetService {
         Double newSpent = budget.getSpent() + amount;
         Double remaining = budget.getRemaining();
         Double remainingAfterTransaction = remaining - amount;
+        double projectedSpend = burnRateForecaster.projectedSpend(budget, newSpent, LocalDate.now());
 
         result.put("hasBudget", true);
         result.put("budgetId", budget.getId());
@@ -249,26 +443,297 @@ public class BudgetService {
         result.put("usagePercentageBefore", budget.getUsagePercentage());
         result.put("usagePercentageAfter", (newSpent / budget.getAmount()) * 100);
         result.put("budgetStatus", budget.getStatus());
+        result.put("projectedSpend", Math.round(projectedSpend * 100.0) / 100.0);
 
         // Add warning levels
-        if (remainingAfterTransaction < 0) {
-            result.put("alertLevel", "CRITICAL");
-            result.put("message", "This transaction will exceed your budget by $" +
-                    Math.abs(remainingAfterTransaction));
-        } else if (remainingAfterTransaction < (budget.getAmount() * 0.2)) {
-            result.put("alertLevel", "WARNING");
-            result.put("message", "This transaction will leave less than 20% of your budget");
-        } else if (remainingAfterTransaction < (budget.getAmount() * 0.5)) {
-            result.put("alertLevel", "INFO");
-            result.put("message", "This transaction will use a significant portion of your budget");
-        } else {
-            result.put("alertLevel", "SAFE");
-            result.put("message", "Budget has sufficient funds for this transaction");
+        String alertLevel = getAlertLevel(budget.getAmount(), remainingAfterTransaction,
+                burnRateForecaster.alertProjection(budget, newSpent, LocalDate.now()));
+        result.put("alertLevel", alertLevel);
+        switch (alertLevel) {
+            case "CRITICAL":
+                result.put("message", "This transaction will exceed your budget by $" +
+                        Math.abs(remainingAfterTransaction));
+                break;
+            case "FORECAST_EXCEED":
+                result.put("message", "At your current spending pace this budget will be exceeded before " +
+                        budget.getEndDate());
+                break;
+            case "WARNING":
+                result.put("message", "This transaction will leave less than 20% of your budget");
+                break;
+            case "INFO":
+                result.put("message", "This transaction will use a significant portion of your budget");
+                break;
+            default:
+                result.put("message", "Budget has sufficient funds for this transaction");
         }
 
         return result;
     }
 
+    // Check many hypothetical transactions at once. Budgets are resolved exactly as for
+    // checkTransactionAgainstBudget (own and shared, no inactive ones, the newer period on a
+    // boundary day), once per distinct category, and loaded once; spending accumulates in
+    // request order, so item N sees items 0..N-1
+    public Map<String, Object> checkTransactionsAgainstBudgets(Long userId, List<?> items) {
+        LocalDate today = LocalDate.now();
+        Map<String, List<Long>> budgetIdsByCategory = new HashMap<>();  // by name as sent
+        Map<Long, Budget> budgetsById = new HashMap<>();
+
+        Map<Long, Double> runningSpent = new LinkedHashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>(items.size());
+        int withBudget = 0;
+        int exceeding = 0;
+        int invalid = 0;
+
+        for (int i = 0; i < items.size(); i++) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("index", i);
+
+            // A malformed item is reported in its own result and does not fail the batch
+            Map<?, ?> item = items.get(i) instanceof Map<?, ?> map ? map : null;
+            Object rawCategory = item != null ? item.get("category") : null;
+            Object rawAmount = item != null ? item.get("amount") : null;
+            String error = validateBatchItem(item, rawCategory, rawAmount);
+            if (error != null) {
+                result.put("error", error);
+                results.add(result);
+                invalid++;
+                continue;
+            }
+
+            String category = (String) rawCategory;
+            double amount = batchAmount(rawAmount);
+            result.put("category", category);
+            result.put("transactionAmount", amount);
+
+            List<Long> budgetIds = budgetIdsByCategory.computeIfAbsent(category,
+                    name -> findAffectedBudgetIds(userId, categoryDictionary.findId(name), today));
+
+            // The spend counts against every affected budget (the category's, its ancestors',
+            // shared ones); figures are reported for the most specific one, the alert level is the worst
+            Budget primary = null;
+            String alertLevel = "NONE";
+            boolean willExceed = false;
+
+            for (Long budgetId : budgetIds) {
+                Budget budget = budgetsById.computeIfAbsent(budgetId,
+                        id -> budgetRepository.findById(id).orElse(null));
+                if (budget == null) {
+                    continue;
+                }
+
+                double spentBefore = runningSpent.getOrDefault(budgetId, budget.getSpent());
+                double spentAfter = spentBefore + amount;
+                double remainingAfter = budget.getAmount() - spentAfter;
+                runningSpent.put(budgetId, spentAfter);
+
+                willExceed |= spentAfter > budget.getAmount();
+                String level = getAlertLevel(budget.getAmount(), remainingAfter,
+                        burnRateForecaster.alertProjection(budget, spentAfter, today));
+                if (ALERT_LEVELS.indexOf(level) > ALERT_LEVELS.indexOf(alertLevel)) {
+                    alertLevel = level;
+                }
+
+                if (primary == null) {
+                    primary = budget;
+                    result.put("budgetId", budget.getId());
+                    result.put("budgetAmount", budget.getAmount());
+                    result.put("spentBefore", spentBefore);
+                    result.put("remainingAfterTransaction", remainingAfter);
+                }
+            }
+
+            result.put("hasBudget", primary != null);
+            result.put("alertLevel", alertLevel);
+            if (primary != null) {
+                result.put("willExceed", willExceed);
+                withBudget++;
+                if (willExceed) exceeding++;
+            }
+            results.add(result);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
+        response.put("totalItems", items.size());
+        response.put("itemsWithBudget", withBudget);
+        response.put("itemsExceeding", exceeding);
+        response.put("itemsInvalid", invalid);
+        response.put("projectedSpending", projectedSpending(runningSpent, budgetsById));
+        response.put("results", results);
+        return response;
+    }
+
+    // Helper method: spent after the batch per affected budget (a user can have an own
+    // and a shared budget for the same category, so this is keyed by budget id)
+    private Map<String, Map<String, Object>> projectedSpending(Map<Long, Double> runningSpent,
+                                                               Map<Long, Budget> budgetsById) {
+        Map<String, Map<String, Object>> projected = new LinkedHashMap<>();
+        runningSpent.forEach((budgetId, spent) -> {
+            Budget budget = budgetsById.get(budgetId);
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("category", budget.getCategory());
+            entry.put("budgetAmount", budget.getAmount());
+            entry.put("spent", spent);
+            projected.put(String.valueOf(budgetId), entry);
+        });
+        return projected;
+    }
+
+    // Helper method: error message for a malformed batch item, or null if it is usable
+    private String validateBatchItem(Map<?, ?> item, Object category, Object amount) {
+        if (item == null) {
+            return "Item must be an object {category, amount}";
+        }
+        if (!(category instanceof String) || ((String) category).isBlank()) {
+            return "category is required";
+        }
+        if (amount == null) {
+            return "amount is required";
+        }
+        try {
+            double value = batchAmount(amount);
+            if (!Double.isFinite(value) || value <= 0) {
+                return "amount must be greater than 0";
+            }
+        } catch (NumberFormatException e) {
+            return "amount must be a valid number";
+        }
+        return null;
+    }
+
+    // Helper method: JSON numbers arrive as Number (no string round trip), strings are parsed
+    private double batchAmount(Object amount) {
+        return amount instanceof Number number ? number.doubleValue() : Double.parseDouble(amount.toString());
+    }
+
+    // Helper method: alert level thresholds shared by single and batch checks.
+    // FORECAST_EXCEED: still within budget, but the burn rate projects an overrun this period
+    // (only once the forecaster has enough of the period behind it, see alertProjection).
+    private String getAlertLevel(double budgetAmount, double remainingAfterTransaction, double projectedSpend) {
+        if (remainingAfterTransaction < 0) {
+            return "CRITICAL";
+        } else if (projectedSpend > budgetAmount) {
+            return "FORECAST_EXCEED";
+        } else if (remainingAfterTransaction < (budgetAmount * 0.2)) {
+            return "WARNING";
+        } else if (remainingAfterTransaction < (budgetAmount * 0.5)) {
+            return "INFO";
+        }
+        return "SAFE";
+    }
+
+    // Helper method: most specific budget covering (user, category or an ancestor, date),
+    // resolved through the interval index
+    private Optional<Budget> findEffectiveBudget(Long userId, Integer categoryId, LocalDate date) {
+        List<Long> budgetIds = findAffectedBudgetIds(userId, categoryId, date);
+        if (budgetIds.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<Budget> budget = budgetRepository.findById(budgetIds.get(0));
+        if (budget.isEmpty()) {
+            // Stale entry (row removed outside this service): rebuild this user's index and retry once
+            budgetIntervalIndex.invalidate(userId);
+            budgetIds = findAffectedBudgetIds(userId, categoryId, date);
+            return budgetIds.isEmpty() ? Optional.empty() : budgetRepository.findById(budgetIds.get(0));
+        }
+        return budget;
+    }
+
+    // Helper method: budgets of the category and each of its ancestors covering the date,
+    // most specific first (uses the precomputed ancestor closure, no parent walk).
+    // At each level the user's own budget comes before budgets shared with them; a shared
+    // budget applies when it is the one its owner's index resolves for that category and date.
+    private List<Long> findAffectedBudgetIds(Long userId, Integer categoryId, LocalDate date) {
+        List<Long> budgetIds = new ArrayList<>();
+        if (categoryId == null) {
+            return budgetIds;
+        }
+
+        Map<Long, Long> sharedBudgets = budgetMemberService.getSharedBudgets(userId);
+
+        // One snapshot (and version check) per user involved, not per ancestor
+        BudgetIntervalIndex.UserIntervals own = budgetIntervalIndex.forUser(userId);
+        Map<Long, BudgetIntervalIndex.UserIntervals> owners = new HashMap<>();
+        for (Long ownerId : sharedBudgets.values()) {
+            owners.computeIfAbsent(ownerId, budgetIntervalIndex::forUser);
+        }
+
+        for (int ancestorId : categoryDictionary.getAncestry(categoryId)) {
+            Long budgetId = own.findBudgetId(ancestorId, date);
+            if (budgetId != null && !budgetIds.contains(budgetId)) {
+                budgetIds.add(budgetId);
+            }
+
+            for (Map.Entry<Long, Long> shared : sharedBudgets.entrySet()) {
+                Long ownerBudgetId = owners.get(shared.getValue()).findBudgetId(ancestorId, date);
+                if (shared.getKey().equals(ownerBudgetId) && !budgetIds.contains(ownerBudgetId)) {
+                    budgetIds.add(ownerBudgetId);
+                }
+            }
+        }
+        return budgetIds;
+    }
+
+    // Helper method: category tree of the per-category totals (already aggregated in one pass).
+    // Spend is rolled up when it is recorded, so a parent's "spent" already includes its children.
+    private Map<String, Map<String, Object>> buildCategoryHierarchy(Map<Integer, Double> amountById,
+                                                                    Map<Integer, Double> spentById) {
+        Map<String, Map<String, Object>> nodes = new HashMap<>();
+
+        for (Integer categoryId : amountById.keySet()) {
+            if (categoryId == null) {
+                continue;
+            }
+            String childName = null;
+            for (int ancestorId : categoryDictionary.getAncestry(categoryId)) {
+                String name = categoryDictionary.getName(ancestorId);
+                boolean created = !nodes.containsKey(name);
+                Map<String, Object> node = nodes.computeIfAbsent(name, key -> {
+                    Map<String, Object> newNode = new HashMap<>();
+                    Integer parentId = categoryDictionary.getParentId(ancestorId);
+                    newNode.put("parent", parentId != null ? categoryDictionary.getName(parentId) : null);
+                    newNode.put("budgetAmount", amountById.getOrDefault(ancestorId, 0.0));
+                    newNode.put("spent", spentById.getOrDefault(ancestorId, 0.0));
+                    newNode.put("children", new ArrayList<String>());
+                    return newNode;
+                });
+                if (childName != null) {
+                    @SuppressWarnings("unchecked")
+                    List<String> children = (List<String>) node.get("children");
+                    if (!children.contains(childName)) {
+                        children.add(childName);
+                    }
+                }
+                if (!created) {
+                    break;  // The rest of the chain is already linked
+                }
+                childName = name;
+            }
+        }
+        return nodes;
+    }
+
+    // Helper method: re-key per-category totals from dictionary ids to names
+    private Map<String, Double> toCategoryNames(Map<Integer, Double> totalsById) {
+        Map<String, Double> totalsByName = new HashMap<>();
+        totalsById.forEach((categoryId, total) -> {
+            String name = categoryDictionary.getName(categoryId);
+            totalsByName.merge(name != null ? name : "UNKNOWN", total, Double::sum);
+        });
+        return totalsByName;
+    }
+
+    // Helper method: overlap check for create/update. Reads the database under the user's
+    // lock row: an index snapshot can predate a write that has not committed yet.
+    private boolean hasOverlap(Long userId, Integer categoryId, LocalDate startDate, LocalDate endDate,
+                               Long excludeBudgetId) {
+        return !budgetRepository.findOverlappingBudgetIds(userId, categoryId, startDate, endDate,
+                excludeBudgetId == null ? -1L : excludeBudgetId).isEmpty();
+    }
+
     // Helper method to calculate end date
     private LocalDate calculateEndDate(LocalDate startDate, String period) {
         switch (period.toUpperCase()) {
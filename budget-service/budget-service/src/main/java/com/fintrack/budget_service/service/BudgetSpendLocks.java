@@ -0,0 +1,56 @@
+package com.fintrack.budget_service.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Striped per-budget locks for the spend path. A spend touches a budget and its
+// ancestor budgets (possibly owned by different users), so all stripes are taken
+// in ascending order to rule out deadlocks; unrelated budgets rarely share a stripe.
+// Locks are per instance - the atomic UPDATE keeps totals correct across instances.
+@Component
+public class BudgetSpendLocks {
+
+    @Value("${budget.spend.lock-stripes:256}")
+    private int stripeCount;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    public void init() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Lock every stripe covering the budgets; returns the stripes to pass to unlock
+    public int[] lock(Collection<Long> budgetIds) {
+        int[] held = budgetIds.stream()
+                .mapToInt(budgetId -> Math.floorMod(budgetId.hashCode(), stripeCount))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int i = 0; i < held.length; i++) {
+            try {
+                stripes[held[i]].lockInterruptibly();
+            } catch (InterruptedException e) {
+                unlock(Arrays.copyOf(held, i));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for budget lock");
+            }
+        }
+        return held;
+    }
+
+    public void unlock(int[] held) {
+        for (int i = held.length - 1; i >= 0; i--) {
+            stripes[held[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.BudgetUserLock;
+import com.fintrack.budget_service.repository.BudgetUserLockRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Per-user database lock for check-then-write on a user's budgets. Unlike a JVM
+// lock it covers every instance and is released only when the caller's
+// transaction commits or rolls back, after the write is visible. Taking it also
+// bumps the user's budgets version, which makes every instance's BudgetIntervalIndex
+// snapshot of the user stale once the write commits.
+@Component
+public class BudgetUserLocks {
+
+    @Autowired
+    private BudgetUserLockRepository lockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Lock the user's row in the caller's transaction, creating it on first use.
+    // Every caller is about to change the user's budgets.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(Long userId) {
+        if (lockRepository.lockByUserId(userId).isEmpty()) {
+            createRow(userId);
+        }
+        lockRepository.incrementBudgetsVersion(userId);
+    }
+
+    // Changes made without a budget write of their own (e.g. the category backfill)
+    @Transactional
+    public void markChanged(Long userId) {
+        lock(userId);
+    }
+
+    // First budget write for this user: insert the row in its own transaction.
+    // A concurrent insert by another request or instance wins the primary key.
+    private void createRow(Long userId) {
+        try {
+            newTransaction.executeWithoutResult(status -> lockRepository.saveAndFlush(new BudgetUserLock(userId)));
+        } catch (DataIntegrityViolationException e) {
+            // Already created
+        }
+
+        lockRepository.lockByUserId(userId)
+                .orElseThrow(() -> new IllegalStateException("Budget lock row missing for user " + userId));
+    }
+}
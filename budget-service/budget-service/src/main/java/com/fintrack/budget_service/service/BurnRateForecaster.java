@@ -0,0 +1,145 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.Budget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+// Burn-rate forecasting from the velocity statistics kept on each budget.
+// Every spend updates an EWMA of daily spend in O(1): the running day total is
+// folded into the average when a later day starts, and days without spend decay
+// it by (1 - alpha) each. Nothing here reads transaction history.
+@Component
+public class BurnRateForecaster {
+
+    @Value("${budget.forecast.ewma-alpha:0.3}")
+    private double alpha;
+
+    // A rate from the first day(s) of a period is mostly noise (one grocery run projected
+    // over a month), so forecasts only drive alerts after this many closed days...
+    @Value("${budget.forecast.min-closed-days:3}")
+    private int minClosedDays;
+
+    // ...or once this fraction of the period has elapsed (short periods)
+    @Value("${budget.forecast.min-elapsed-fraction:0.25}")
+    private double minElapsedFraction;
+
+    // Update the budget's velocity fields for a spend (budget.spent already includes it)
+    public void recordSpend(Budget budget, double amount, LocalDate date) {
+        LocalDate lastDate = budget.getLastSpendDate();
+
+        if (lastDate == null) {
+            budget.setSpendDayTotal(amount);
+            budget.setLastSpendDate(date);
+        } else if (date.isAfter(lastDate)) {
+            // Close the previous spend day, then account for the empty days in between
+            double closed = closedDayRate(budget, budget.getSpent() - amount);
+            long emptyDays = ChronoUnit.DAYS.between(lastDate, date) - 1;
+            budget.setSpendEwma(closed * Math.pow(1 - alpha, emptyDays));
+            budget.setSpendDayTotal(amount);
+            budget.setLastSpendDate(date);
+        } else {
+            // Same day, or back-dated spend folded into the open day (approximation)
+            budget.setSpendDayTotal(orZero(budget.getSpendDayTotal()) + amount);
+        }
+    }
+
+    // Estimated spend per day as of 'today'
+    public double dailyRate(Budget budget, LocalDate today) {
+        LocalDate lastDate = budget.getLastSpendDate();
+
+        if (lastDate == null || !today.isAfter(lastDate)) {
+            // Today's spend is already in 'spent'; use closed days only
+            return budget.getSpendEwma() != null
+                    ? budget.getSpendEwma()
+                    : budget.getSpent() / dayOfPeriod(budget, today);
+        }
+
+        double closed = closedDayRate(budget, budget.getSpent());
+        long emptyDays = ChronoUnit.DAYS.between(lastDate, today) - 1;
+        return closed * Math.pow(1 - alpha, emptyDays);
+    }
+
+    // Spend expected by the end of the period if 'spent' continues at the current rate
+    public double projectedSpend(Budget budget, double spent, LocalDate today) {
+        return spent + dailyRate(budget, today) * daysLeftAfter(budget, today);
+    }
+
+    // Projection for alert levels: the actual spend until the forecast is reliable,
+    // so FORECAST_EXCEED cannot fire on the first days of a period
+    public double alertProjection(Budget budget, double spent, LocalDate today) {
+        return isReliable(budget, today) ? projectedSpend(budget, spent, today) : spent;
+    }
+
+    // Enough closed days (or enough of the period) behind 'today' to trust the rate
+    public boolean isReliable(Budget budget, LocalDate today) {
+        long closedDays = dayOfPeriod(budget, today) - 1;
+        long periodDays = Math.max(1, ChronoUnit.DAYS.between(budget.getStartDate(), budget.getEndDate()));
+        return closedDays >= minClosedDays || (double) closedDays / periodDays >= minElapsedFraction;
+    }
+
+    public Map<String, Object> forecast(Budget budget, LocalDate today) {
+        double rate = dailyRate(budget, today);
+        double projected = budget.getSpent() + rate * daysLeftAfter(budget, today);
+
+        Map<String, Object> forecast = new HashMap<>();
+        forecast.put("budgetId", budget.getId());
+        forecast.put("category", budget.getCategory());
+        forecast.put("budgetAmount", budget.getAmount());
+        forecast.put("currentSpent", budget.getSpent());
+        forecast.put("periodStart", budget.getStartDate().toString());
+        forecast.put("periodEnd", budget.getEndDate().toString());
+        forecast.put("dayOfPeriod", dayOfPeriod(budget, today));
+        forecast.put("periodDays", Math.max(1, ChronoUnit.DAYS.between(budget.getStartDate(), budget.getEndDate())));
+        forecast.put("dailySpendRate", round(rate));
+        forecast.put("projectedSpend", round(projected));
+        forecast.put("projectedUsagePercentage",
+                budget.getAmount() > 0 ? round((projected / budget.getAmount()) * 100) : 0.0);
+        forecast.put("willExceed", projected > budget.getAmount());
+        forecast.put("reliable", isReliable(budget, today));
+
+        // Day the remaining amount runs out at the current pace (within this period)
+        if (budget.isExceeded()) {
+            forecast.put("projectedExceedDate", today.toString());
+        } else if (rate > 0) {
+            long daysToExceed = (long) Math.floor(budget.getRemaining() / rate) + 1;
+            LocalDate exceedDate = today.plusDays(daysToExceed);
+            forecast.put("projectedExceedDate", exceedDate.isBefore(budget.getEndDate()) ? exceedDate.toString() : null);
+        } else {
+            forecast.put("projectedExceedDate", null);
+        }
+        forecast.put("date", today.toString());
+        return forecast;
+    }
+
+    // EWMA including the open day once it is over; the first closed day seeds the
+    // average with the mean daily spend so far (covers budgets created before tracking)
+    private double closedDayRate(Budget budget, double spentThroughLastDay) {
+        if (budget.getSpendEwma() == null) {
+            return spentThroughLastDay / dayOfPeriod(budget, budget.getLastSpendDate());
+        }
+        return alpha * orZero(budget.getSpendDayTotal()) + (1 - alpha) * budget.getSpendEwma();
+    }
+
+    // 1-based day within the period
+    private long dayOfPeriod(Budget budget, LocalDate date) {
+        return Math.max(1, ChronoUnit.DAYS.between(budget.getStartDate(), date) + 1);
+    }
+
+    // Whole days remaining after 'today' ([startDate, endDate) periods)
+    private long daysLeftAfter(Budget budget, LocalDate today) {
+        return Math.max(0, ChronoUnit.DAYS.between(today, budget.getEndDate()) - 1);
+    }
+
+    private double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
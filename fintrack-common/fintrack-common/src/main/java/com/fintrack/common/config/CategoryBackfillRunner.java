@@ -0,0 +1,56 @@
+package com.fintrack.common.config;
+
+import com.fintrack.common.service.CategoryDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.util.List;
+
+// Assigns dictionary ids to rows created before categories were dictionary-encoded.
+// Each service subclasses it for its own table (budgets, transactions).
+public abstract class CategoryBackfillRunner<T> implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryBackfillRunner.class);
+
+    @Autowired
+    protected CategoryDictionary categoryDictionary;
+
+    // Rows without a category id yet
+    protected abstract List<T> findLegacyRows();
+
+    protected abstract String getCategory(T row);
+
+    protected abstract Long getUserId(T row);
+
+    protected abstract void setCategory(T row, Integer categoryId, String name);
+
+    protected abstract void saveAll(List<T> rows);
+
+    // Plural noun for the log line, e.g. "budgets"
+    protected abstract String rowName();
+
+    // Called after the rows are saved
+    protected void afterBackfill(List<T> rows) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<T> legacyRows = findLegacyRows();
+        if (legacyRows.isEmpty()) {
+            return;
+        }
+
+        for (T row : legacyRows) {
+            // Names stored before the dictionary existed are kept, even if not built in
+            Integer categoryId = categoryDictionary.resolveLegacyId(getCategory(row), getUserId(row));
+            setCategory(row, categoryId, categoryDictionary.getName(categoryId));
+        }
+        saveAll(legacyRows);
+        afterBackfill(legacyRows);
+
+        log.info("Category backfill: {} {} updated", legacyRows.size(), rowName());
+    }
+}
@@ -0,0 +1,17 @@
+package com.fintrack.common.config;
+
+import com.fintrack.common.entities.Category;
+import com.fintrack.common.repository.CategoryRepository;
+import com.fintrack.common.service.CategoryDictionary;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Category dictionary for services that own category ids (@Import it on the application class).
+// The packages are added to the auto-configuration packages rather than declared with
+// @EntityScan/@EnableJpaRepositories, so the service keeps scanning its own entities and repositories.
+@Configuration
+@AutoConfigurationPackage(basePackageClasses = {Category.class, CategoryRepository.class})
+@Import(CategoryDictionary.class)
+public class CategoryConfig {
+}
@@ -0,0 +1,12 @@
+package com.fintrack.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Fault injection for servlet services (@Import it on the application class). Inert
+// unless fault-injection.enabled is true; the api-gateway imports FaultInjector and
+// FaultInjectionEndpoint with its own reactive filter instead.
+@Configuration
+@Import({FaultInjector.class, FaultInjectionFilter.class, FaultInjectionEndpoint.class})
+public class FaultInjectionConfig {
+}
@@ -0,0 +1,81 @@
+package com.fintrack.common.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// /actuator/faults - GET lists rules, POST {"target": "/api/budgets/check-transaction", "latencyMs": 200,
+// "distribution": "EXPONENTIAL", "errorRate": 0.05} sets one (target is a path prefix in the
+// servlet services, a route id such as "budget-service" in the api-gateway, or "*"), DELETE
+// ?target=... removes one, DELETE without a target removes all. An invalid rule is a 400.
+@Component
+@Endpoint(id = "faults")
+@ConditionalOnProperty(name = "fault-injection.enabled", havingValue = "true")
+public class FaultInjectionEndpoint {
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @ReadOperation
+    public Map<String, FaultInjector.Rule> rules() {
+        return faultInjector.getRules();
+    }
+
+    @WriteOperation
+    public Map<String, Object> setRule(String target, @Nullable String distribution, @Nullable Long latencyMs,
+                                       @Nullable Long jitterMs, @Nullable Double latencyRate,
+                                       @Nullable Double errorRate, @Nullable Integer errorStatus,
+                                       @Nullable Double resetRate) {
+        FaultInjector.Rule rule = new FaultInjector.Rule();
+        if (distribution != null) {
+            rule.setDistribution(distribution);
+        }
+        if (latencyMs != null) {
+            rule.setLatencyMs(latencyMs);
+        }
+        if (jitterMs != null) {
+            rule.setJitterMs(jitterMs);
+        }
+        if (latencyRate != null) {
+            rule.setLatencyRate(latencyRate);
+        }
+        if (errorRate != null) {
+            rule.setErrorRate(errorRate);
+        }
+        if (errorStatus != null) {
+            rule.setErrorStatus(errorStatus);
+        }
+        if (resetRate != null) {
+            rule.setResetRate(resetRate);
+        }
+        try {
+            faultInjector.setRule(target, rule);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("target", target);
+        response.put("rule", rule);
+        return response;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> removeRule(@Nullable String target) {
+        if (target == null) {
+            faultInjector.clear();
+        } else {
+            faultInjector.removeRule(target);
+        }
+        return Map.of("removed", target != null ? target : "all");
+    }
+}
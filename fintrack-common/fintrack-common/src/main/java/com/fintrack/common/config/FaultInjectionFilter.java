@@ -0,0 +1,61 @@
+package com.fintrack.common.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Applies FaultInjector rules (by path prefix) to incoming requests of a servlet service
+// before anything else runs, so callers see a slow, failing or disconnecting instance of it
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "fault-injection.enabled", havingValue = "true")
+public class FaultInjectionFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        FaultInjector.Fault fault = request.getRequestURI().startsWith("/actuator")
+                ? null : faultInjector.decideForPath(request.getRequestURI());
+        if (fault == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (fault.getDelayMs() > 0) {
+            try {
+                Thread.sleep(fault.getDelayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (fault.isReset()) {
+            // Promise a body, send none and close: the caller sees the connection drop mid-response
+            response.setHeader("Connection", "close");
+            response.setContentLength(1024);
+            response.flushBuffer();
+            return;
+        }
+
+        if (fault.getErrorStatus() > 0) {
+            response.setStatus(fault.getErrorStatus());
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Injected fault\"}");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+}
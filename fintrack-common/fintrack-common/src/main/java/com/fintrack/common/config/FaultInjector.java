@@ -0,0 +1,236 @@
+package com.fintrack.common.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runtime-configurable faults, for local resilience and tail-latency testing. A target
+// is a request path prefix in the servlet services (FaultInjectionFilter) and a route id
+// in the api-gateway; "*" matches everything. Only present when fault-injection.enabled
+// is true; rules are set through the "faults" actuator endpoint.
+@Component
+@ConditionalOnProperty(name = "fault-injection.enabled", havingValue = "true")
+public class FaultInjector {
+
+    public static final String ALL_TARGETS = "*";
+
+    private static final Set<String> DISTRIBUTIONS = Set.of("FIXED", "UNIFORM", "EXPONENTIAL");
+
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
+
+    // Rejects a rule that could not be applied (IllegalArgumentException) rather than
+    // failing every request it matches
+    public void setRule(String target, Rule rule) {
+        if (target == null || target.isBlank()) {
+            throw new IllegalArgumentException("target is required");
+        }
+        validate(rule);
+        rules.put(target, rule);
+    }
+
+    public void removeRule(String target) {
+        rules.remove(target);
+    }
+
+    public void clear() {
+        rules.clear();
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    // What to do to a request for this target (exact match), or null to leave it alone
+    public Fault decide(String target) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        Rule rule = rules.get(target);
+        if (rule == null) {
+            rule = rules.get(ALL_TARGETS);
+        }
+        return rule != null ? rule.decide() : null;
+    }
+
+    // Same for a request path, the longest matching prefix wins
+    public Fault decideForPath(String path) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        Rule rule = null;
+        int matched = -1;
+        for (Map.Entry<String, Rule> entry : rules.entrySet()) {
+            String prefix = entry.getKey();
+            if (!prefix.equals(ALL_TARGETS) && path.startsWith(prefix) && prefix.length() > matched) {
+                rule = entry.getValue();
+                matched = prefix.length();
+            }
+        }
+        if (rule == null) {
+            rule = rules.get(ALL_TARGETS);
+        }
+        return rule != null ? rule.decide() : null;
+    }
+
+    private static void validate(Rule rule) {
+        if (rule.getDistribution() == null || !DISTRIBUTIONS.contains(rule.getDistribution().toUpperCase())) {
+            throw new IllegalArgumentException("distribution must be one of " + DISTRIBUTIONS);
+        }
+        if (rule.getLatencyMs() < 0 || rule.getJitterMs() < 0) {
+            throw new IllegalArgumentException("latencyMs and jitterMs must not be negative");
+        }
+        if (rule.getErrorStatus() < 100 || rule.getErrorStatus() > 599) {
+            throw new IllegalArgumentException("errorStatus must be between 100 and 599");
+        }
+        checkRate("latencyRate", rule.getLatencyRate());
+        checkRate("errorRate", rule.getErrorRate());
+        checkRate("resetRate", rule.getResetRate());
+        if (rule.getErrorRate() + rule.getResetRate() > 1.0) {
+            throw new IllegalArgumentException("errorRate + resetRate must not exceed 1");
+        }
+    }
+
+    private static void checkRate(String name, double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+        }
+    }
+
+    // Latency (delayed by latencyRate of requests) drawn from the distribution:
+    // FIXED = latencyMs, UNIFORM = latencyMs..latencyMs+jitterMs,
+    // EXPONENTIAL = mean latencyMs (long tail). Then errorRate of requests fail with
+    // errorStatus and resetRate have their connection dropped (servlet services: the
+    // response is cut off mid-way).
+    public static class Rule {
+        private String distribution = "FIXED";
+        private long latencyMs;
+        private long jitterMs;
+        private double latencyRate = 1.0;
+        private double errorRate;
+        private int errorStatus = 503;
+        private double resetRate;
+
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder resets = new LongAdder();
+
+        Fault decide() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            long delayMs = 0;
+            if (latencyMs > 0 && random.nextDouble() < latencyRate) {
+                delayMs = switch (distribution.toUpperCase()) {
+                    case "UNIFORM" -> latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+                    case "EXPONENTIAL" -> (long) (-latencyMs * Math.log(1 - random.nextDouble()));
+                    default -> latencyMs;
+                };
+                delayed.increment();
+            }
+
+            double roll = random.nextDouble();
+            if (roll < resetRate) {
+                resets.increment();
+                return new Fault(delayMs, 0, true);
+            }
+            if (roll < resetRate + errorRate) {
+                errors.increment();
+                return new Fault(delayMs, errorStatus, false);
+            }
+            return delayMs > 0 ? new Fault(delayMs, 0, false) : null;
+        }
+
+        public Map<String, Object> getInjected() {
+            Map<String, Object> injected = new HashMap<>();
+            injected.put("delayed", delayed.sum());
+            injected.put("errors", errors.sum());
+            injected.put("resets", resets.sum());
+            return injected;
+        }
+
+        public String getDistribution() {
+            return distribution;
+        }
+
+        public void setDistribution(String distribution) {
+            this.distribution = distribution;
+        }
+
+        public long getLatencyMs() {
+            return latencyMs;
+        }
+
+        public void setLatencyMs(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        public long getJitterMs() {
+            return jitterMs;
+        }
+
+        public void setJitterMs(long jitterMs) {
+            this.jitterMs = jitterMs;
+        }
+
+        public double getLatencyRate() {
+            return latencyRate;
+        }
+
+        public void setLatencyRate(double latencyRate) {
+            this.latencyRate = latencyRate;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public int getErrorStatus() {
+            return errorStatus;
+        }
+
+        public void setErrorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+        }
+
+        public double getResetRate() {
+            return resetRate;
+        }
+
+        public void setResetRate(double resetRate) {
+            this.resetRate = resetRate;
+        }
+    }
+
+    public static final class Fault {
+        private final long delayMs;
+        private final int errorStatus;  // 0 = no error
+        private final boolean reset;
+
+        Fault(long delayMs, int errorStatus, boolean reset) {
+            this.delayMs = delayMs;
+            this.errorStatus = errorStatus;
+            this.reset = reset;
+        }
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public int getErrorStatus() {
+            return errorStatus;
+        }
+
+        public boolean isReset() {
+            return reset;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.fintrack.common.config;
+
+import com.fintrack.common.service.IdentitySigner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Gateway-signed identity for servlet services (@Import it on the application class).
+// Needs gateway.identity.secret, the same value the api-gateway signs with.
+@Configuration
+@Import({IdentitySigner.class, GatewayIdentityVerifier.class})
+public class GatewayIdentityConfig {
+}
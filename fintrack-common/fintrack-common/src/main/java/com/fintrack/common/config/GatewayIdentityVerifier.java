@@ -0,0 +1,56 @@
+package com.fintrack.common.config;
+
+import com.fintrack.common.entities.GatewayIdentity;
+import com.fintrack.common.service.IdentitySigner;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// Reads the identity the api-gateway has already authenticated (X-User-* headers,
+// HMAC-signed with the shared gateway.identity.secret). A valid signature means the
+// token was verified at the edge: the user id can be trusted and auth-service is not called.
+// The signature covers the method and path, so headers issued for one request are rejected
+// on any other.
+@Component
+public class GatewayIdentityVerifier {
+
+    @Autowired
+    private IdentitySigner identitySigner;
+
+    @Value("${gateway.identity.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    // Identity of the current request, or null if it did not come signed through the gateway
+    public GatewayIdentity currentIdentity() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes)
+                RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : verify(attributes.getRequest());
+    }
+
+    public GatewayIdentity verify(HttpServletRequest request) {
+        String userId = request.getHeader(IdentitySigner.USER_ID_HEADER);
+        String email = request.getHeader(IdentitySigner.USER_EMAIL_HEADER);
+        String timestamp = request.getHeader(IdentitySigner.TIMESTAMP_HEADER);
+        String signature = request.getHeader(IdentitySigner.SIGNATURE_HEADER);
+        if (userId == null || email == null || timestamp == null || signature == null) {
+            return null;
+        }
+
+        try {
+            long age = System.currentTimeMillis() - Long.parseLong(timestamp);
+            if (age < -5000 || age > maxAgeMs) {
+                return null;  // Stale or replayed headers
+            }
+            if (!identitySigner.verify(userId, email, timestamp,
+                    request.getMethod(), request.getRequestURI(), signature)) {
+                return null;
+            }
+            return new GatewayIdentity(Long.valueOf(userId), email);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
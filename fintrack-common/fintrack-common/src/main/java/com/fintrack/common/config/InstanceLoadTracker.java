@@ -0,0 +1,186 @@
+package com.fintrack.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Live load of every upstream instance, fed by the load balancer lifecycle:
+// requests in flight, EWMA of latency and the current error streak. An instance
+// with too many consecutive failures is ejected for a while.
+// Each started request is remembered by its load balancer response and released
+// exactly once - by onComplete, or by release() for requests that are cancelled
+// and never complete (the api-gateway calls it when the exchange finishes).
+@Component
+public class InstanceLoadTracker implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    @Value("${loadbalancer.ewma-alpha:0.3}")
+    private double ewmaAlpha;
+
+    @Value("${loadbalancer.ejection.consecutive-errors:5}")
+    private int ejectionErrors;
+
+    @Value("${loadbalancer.ejection.duration-ms:10000}")
+    private long ejectionMs;
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    // Requests started and not yet released, keyed by their load balancer response
+    private final Map<InFlightRequest, InstanceStats> inFlightRequests = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        TimedRequestContext timed = request.getContext();
+        if (timed != null && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            InstanceStats instance = statsFor(lbResponse.getServer());
+            if (inFlightRequests.putIfAbsent(new InFlightRequest(lbResponse), instance) == null) {
+                instance.incrementInFlight();
+            }
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        release(lbResponse);
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+
+        InstanceStats instance = statsFor(lbResponse.getServer());
+
+        Object context = completionContext.getLoadBalancerRequest() != null
+                ? completionContext.getLoadBalancerRequest().getContext() : null;
+        if (context instanceof TimedRequestContext timed && timed.getRequestStartTime() > 0) {
+            instance.recordLatency((System.nanoTime() - timed.getRequestStartTime()) / 1_000_000.0, ewmaAlpha);
+        }
+
+        ResponseData response = completionContext.getClientResponse();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+        instance.recordOutcome(failed, ejectionErrors, ejectionMs);
+    }
+
+    // Idempotent: only the first call for a started request lowers the in-flight count
+    public void release(Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null) {
+            return;
+        }
+        InstanceStats instance = inFlightRequests.remove(new InFlightRequest(lbResponse));
+        if (instance != null) {
+            instance.decrementInFlight();
+        }
+    }
+
+    public InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    public Map<String, Object> getMetrics() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> metrics = new HashMap<>();
+        stats.forEach((key, instance) -> {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("inFlight", instance.getInFlight());
+            entry.put("ewmaLatencyMs", instance.getEwmaLatencyMs());
+            entry.put("consecutiveErrors", instance.consecutiveErrors.get());
+            entry.put("ejected", instance.isEjected(now));
+            metrics.put(key, entry);
+        });
+        return metrics;
+    }
+
+    private String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    public static final class InstanceStats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveErrors = new AtomicInteger();
+        private volatile double ewmaLatencyMs;  // 0 until the first sample
+        private volatile long ejectedUntil;
+
+        public int getInFlight() {
+            return Math.max(0, inFlight.get());
+        }
+
+        void incrementInFlight() {
+            inFlight.incrementAndGet();
+        }
+
+        void decrementInFlight() {
+            inFlight.decrementAndGet();
+        }
+
+        public double getEwmaLatencyMs() {
+            return ewmaLatencyMs;
+        }
+
+        public boolean isEjected(long nowMillis) {
+            return ejectedUntil > nowMillis;
+        }
+
+        synchronized void recordLatency(double latencyMs, double alpha) {
+            ewmaLatencyMs = ewmaLatencyMs == 0 ? latencyMs : alpha * latencyMs + (1 - alpha) * ewmaLatencyMs;
+        }
+
+        void recordOutcome(boolean failed, int ejectionErrors, long ejectionMs) {
+            if (!failed) {
+                consecutiveErrors.set(0);
+                return;
+            }
+            if (consecutiveErrors.incrementAndGet() >= ejectionErrors) {
+                consecutiveErrors.set(0);
+                ejectedUntil = System.currentTimeMillis() + ejectionMs;
+            }
+        }
+    }
+
+    // Identity of a load balancer response (DefaultResponse equality is by instance,
+    // which would merge concurrent requests to the same instance)
+    private static final class InFlightRequest {
+        private final Response<ServiceInstance> lbResponse;
+
+        InFlightRequest(Response<ServiceInstance> lbResponse) {
+            this.lbResponse = lbResponse;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof InFlightRequest request && request.lbResponse == lbResponse;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(lbResponse);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.fintrack.common.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Power-of-two-choices: sample two instances at random and send the request to
+// the one with the lower load, (in-flight + 1) x EWMA latency. Slow or busy
+// replicas get proportionally less traffic without a global scan, and ejected
+// instances are skipped while any other instance is available.
+public class LeastLoadedLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceLoadTracker loadTracker;
+
+    public LeastLoadedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                   InstanceLoadTracker loadTracker) {
+        this.supplierProvider = supplierProvider;
+        this.loadTracker = loadTracker;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::chooseFrom);
+    }
+
+    // Also the fallback of UserAffinityLoadBalancer for requests without a user
+    public Response<ServiceInstance> chooseFrom(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+
+        long now = System.currentTimeMillis();
+        List<ServiceInstance> healthy = instances.stream()
+                .filter(instance -> !loadTracker.statsFor(instance).isEjected(now))
+                .toList();
+        List<ServiceInstance> candidates = healthy.isEmpty() ? instances : healthy;
+
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(cost(a) <= cost(b) ? a : b);
+    }
+
+    private double cost(ServiceInstance instance) {
+        InstanceLoadTracker.InstanceStats stats = loadTracker.statsFor(instance);
+        // Unmeasured instances count as 1 ms, so they are tried soon but not flooded
+        double latency = stats.getEwmaLatencyMs() > 0 ? stats.getEwmaLatencyMs() : 1.0;
+        return (stats.getInFlight() + 1) * latency;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fintrack.common.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Every load-balanced call of the importing service (gateway lb:// routes, Feign
+// clients) uses LeastLoadedLoadBalancer - or UserAffinityLoadBalancer for the
+// services in loadbalancer.user-affinity.services - instead of round-robin.
+// @Import it on the application class.
+@Configuration
+@LoadBalancerClients(defaultConfiguration = ServiceLoadBalancerConfiguration.class)
+@Import(InstanceLoadTracker.class)
+public class LoadBalancerConfig {
+}
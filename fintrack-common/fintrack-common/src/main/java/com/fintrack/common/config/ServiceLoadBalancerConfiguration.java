@@ -0,0 +1,33 @@
+package com.fintrack.common.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.util.Set;
+
+// Load balancer client configuration, instantiated once per service in its own
+// child context. Deliberately not annotated, so component scanning skips it.
+// Services listed in user-affinity.services are balanced by user, the rest by load.
+public class ServiceLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> serviceLoadBalancer(
+            Environment environment, LoadBalancerClientFactory clientFactory, InstanceLoadTracker loadTracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        ObjectProvider<ServiceInstanceListSupplier> supplier = clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+
+        Set<String> affinityServices = Set.of(environment.getProperty(
+                "loadbalancer.user-affinity.services", String[].class, new String[0]));
+        if (affinityServices.contains(serviceId)) {
+            return new UserAffinityLoadBalancer(supplier, loadTracker,
+                    environment.getProperty("loadbalancer.user-affinity.virtual-nodes", Integer.class, 100),
+                    environment.getProperty("loadbalancer.user-affinity.load-factor", Double.class, 1.25));
+        }
+        return new LeastLoadedLoadBalancer(supplier, loadTracker);
+    }
+}
@@ -0,0 +1,178 @@
+package com.fintrack.common.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Sends all requests of a user to the same instance, so per-user in-memory state
+// stays hot on one replica: consistent hashing of the user id over a ring of
+// virtual nodes. Bounded loads keep a hot user from overloading its node: an
+// instance already above loadFactor x the average in-flight count is passed over
+// for the next one on the ring. When instances join or leave, only the users
+// on the affected arcs move. Requests without a user fall back to least-loaded.
+public class UserAffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceLoadTracker loadTracker;
+    private final LeastLoadedLoadBalancer fallback;
+    private final int virtualNodes;
+    private final double loadFactor;
+
+    private volatile Ring ring = new Ring(List.of(), new long[0], new int[0]);
+
+    public UserAffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    InstanceLoadTracker loadTracker, int virtualNodes, double loadFactor) {
+        this.supplierProvider = supplierProvider;
+        this.loadTracker = loadTracker;
+        this.fallback = new LeastLoadedLoadBalancer(supplierProvider, loadTracker);
+        this.virtualNodes = virtualNodes;
+        this.loadFactor = loadFactor;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String userId = userId(request);
+        return supplier.get(request).next().map(instances -> userId != null
+                ? chooseFor(userId, instances)
+                : fallback.chooseFrom(instances));
+    }
+
+    Response<ServiceInstance> chooseFor(String userId, List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+
+        Ring current = ringFor(instances);
+        List<ServiceInstance> members = current.instances;
+
+        long now = System.currentTimeMillis();
+        int totalInFlight = 0;
+        for (ServiceInstance instance : members) {
+            totalInFlight += loadTracker.statsFor(instance).getInFlight();
+        }
+        // Bounded load: no instance takes more than loadFactor x its fair share
+        int maxLoad = (int) Math.ceil(loadFactor * (totalInFlight + 1) / members.size());
+
+        int start = current.slotFor(hash(userId));
+        ServiceInstance firstHealthy = null;
+        boolean[] visited = new boolean[members.size()];
+        for (int i = 0; i < current.points.length; i++) {
+            int owner = current.owners[(start + i) % current.points.length];
+            if (visited[owner]) {
+                continue;
+            }
+            visited[owner] = true;
+
+            ServiceInstance candidate = members.get(owner);
+            InstanceLoadTracker.InstanceStats stats = loadTracker.statsFor(candidate);
+            if (stats.isEjected(now)) {
+                continue;
+            }
+            if (stats.getInFlight() < maxLoad) {
+                return new DefaultResponse(candidate);
+            }
+            if (firstHealthy == null) {
+                firstHealthy = candidate;
+            }
+        }
+        return firstHealthy != null ? new DefaultResponse(firstHealthy) : fallback.chooseFrom(instances);
+    }
+
+    // The ring is rebuilt only when the instance list changes
+    private Ring ringFor(List<ServiceInstance> instances) {
+        List<String> keys = instances.stream().map(this::instanceKey).sorted().toList();
+        Ring current = ring;
+        if (current.keys.equals(keys)) {
+            return current;
+        }
+
+        List<ServiceInstance> members = instances.stream()
+                .sorted((a, b) -> instanceKey(a).compareTo(instanceKey(b)))
+                .toList();
+        long[] points = new long[members.size() * virtualNodes];
+        long[][] pairs = new long[points.length][];
+        int n = 0;
+        for (int owner = 0; owner < members.size(); owner++) {
+            String key = instanceKey(members.get(owner));
+            for (int v = 0; v < virtualNodes; v++) {
+                pairs[n++] = new long[]{hash(key + "#" + v), owner};
+            }
+        }
+        Arrays.sort(pairs, (a, b) -> Long.compare(a[0], b[0]));
+
+        int[] owners = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            points[i] = pairs[i][0];
+            owners[i] = (int) pairs[i][1];
+        }
+
+        Ring rebuilt = new Ring(members, points, owners);
+        ring = rebuilt;
+        return rebuilt;
+    }
+
+    private String userId(Request request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null) {
+            HttpHeaders headers = context.getClientRequest().getHeaders();
+            return headers != null ? headers.getFirst(USER_ID_HEADER) : null;
+        }
+        return null;
+    }
+
+    private String instanceKey(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    // 64-bit FNV-1a with a final avalanche, so similar keys land far apart on the ring
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Ring {
+        private final List<ServiceInstance> instances;
+        private final List<String> keys;
+        private final long[] points;  // Sorted virtual node positions
+        private final int[] owners;   // Index into instances for each point
+
+        Ring(List<ServiceInstance> instances, long[] points, int[] owners) {
+            this.instances = instances;
+            this.keys = instances.stream().map(i -> i.getHost() + ":" + i.getPort()).toList();
+            this.points = points;
+            this.owners = owners;
+        }
+
+        // First point clockwise from the hash (wrapping around)
+        int slotFor(long hash) {
+            int index = Arrays.binarySearch(points, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index == points.length ? 0 : index;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.fintrack.common.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Category dictionary row, shared by budget-service and transaction-service (one table)
+@Entity
+@Table(name = "categories")
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String name;  // Normalized: upper-case, words joined with "_"
+
+    @Column(name = "parent_id")
+    private Integer parentId;  // Parent category (null for top-level), e.g. GROCERIES -> FOOD
+
+    @Column(name = "built_in", nullable = false)
+    private Boolean builtIn = false;  // System category vs user-defined
+
+    private Long createdBy;  // User who defined it (null for system categories)
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDate createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (builtIn == null) builtIn = false;
+        createdAt = LocalDate.now();
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Integer parentId) {
+        this.parentId = parentId;
+    }
+
+    public Boolean getBuiltIn() {
+        return builtIn;
+    }
+
+    public void setBuiltIn(Boolean builtIn) {
+        this.builtIn = builtIn;
+    }
+
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(Long createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public LocalDate getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDate createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fintrack.common.entities;
+
+// A user identity authenticated by the api-gateway and carried in signed X-User-* headers
+public class GatewayIdentity {
+
+    private final Long userId;
+    private final String email;
+
+    public GatewayIdentity(Long userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
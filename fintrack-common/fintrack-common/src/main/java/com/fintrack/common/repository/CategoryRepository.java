@@ -0,0 +1,9 @@
+package com.fintrack.common.repository;
+
+import com.fintrack.common.entities.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Integer> {
+}
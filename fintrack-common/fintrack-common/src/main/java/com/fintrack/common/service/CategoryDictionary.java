@@ -0,0 +1,268 @@
+package com.fintrack.common.service;
+
+import com.fintrack.common.entities.Category;
+import com.fintrack.common.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Category name <-> small integer id mapping, cached as an immutable snapshot.
+// Names are accepted at the API edge and normalized ("food ", "Food" -> FOOD),
+// everything below works with ids. System categories are built in; any other name is
+// defined on first use as a user-defined category of the requesting user, as free-form
+// categories were before the dictionary. Each user can define at most
+// categories.max-per-user names, which bounds the shared id space.
+// Categories form a tree; each snapshot precomputes the ancestor closure of
+// every category so roll-ups never walk parent links at request time.
+@Component
+public class CategoryDictionary {
+
+    public static final List<String> SYSTEM_CATEGORIES =
+            List.of("INCOME", "FOOD", "TRANSPORT", "ENTERTAINMENT", "BILLS", "OTHER");
+
+    // Built-in sub-categories (child -> parent)
+    public static final Map<String, String> SYSTEM_SUBCATEGORIES =
+            Map.of("GROCERIES", "FOOD", "RESTAURANTS", "FOOD");
+
+    private static final int MAX_DEPTH = 16;  // Guards the closure against bad parent links
+
+    private static final long MISS_RELOAD_INTERVAL_MS = 1000;
+
+    private static final int MAX_NAME_LENGTH = 64;  // categories.name column
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-]+");
+
+    @Value("${categories.max-per-user:100}")
+    private int maxPerUser;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+
+    private volatile long lastReloadMillis;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        reload();
+        for (String name : SYSTEM_CATEGORIES) {
+            if (!snapshot.idsByName.containsKey(name)) {
+                create(name, null, null, true);
+            }
+        }
+        SYSTEM_SUBCATEGORIES.forEach((name, parent) -> {
+            if (!snapshot.idsByName.containsKey(name)) {
+                create(name, snapshot.idsByName.get(parent), null, true);
+            }
+        });
+    }
+
+    // Canonical form of a category name, or null if blank
+    public static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return SEPARATORS.matcher(name.trim().toUpperCase(Locale.ROOT)).replaceAll("_");
+    }
+
+    // Id of a known category, or null (never creates)
+    public Integer findId(String name) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            return null;
+        }
+        Integer id = snapshot.idsByName.get(normalized);
+        if (id == null) {
+            // May have been created by another instance/service since the last load
+            reloadOnMiss();
+            id = snapshot.idsByName.get(normalized);
+        }
+        return id;
+    }
+
+    // Id of a category given on a request; an unknown name is defined as a
+    // user-defined top-level category of userId
+    public Integer resolveId(String name, Long userId) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            throw new RuntimeException("Category is required");
+        }
+        Integer id = findId(normalized);
+        if (id != null) {
+            return id;
+        }
+        checkUserDefined(normalized, userId);
+        return create(normalized, null, userId, false);
+    }
+
+    // Backfill only: keeps a name stored before the dictionary existed by defining it.
+    // Bounded by the legacy rows, unlike request traffic.
+    public Integer resolveLegacyId(String name, Long userId) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            normalized = "OTHER";
+        }
+        Integer id = findId(normalized);
+        return id != null ? id : create(normalized, null, userId, false);
+    }
+
+    // Define a new (sub-)category; the parent must already exist
+    public Integer createCategory(String name, String parentName, Long userId) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            throw new RuntimeException("Category name is required");
+        }
+        if (findId(normalized) != null) {
+            throw new RuntimeException("Category already exists: " + normalized);
+        }
+        checkUserDefined(normalized, userId);
+
+        Integer parentId = null;
+        if (parentName != null) {
+            parentId = findId(parentName);
+            if (parentId == null) {
+                throw new RuntimeException("Parent category not found: " + parentName);
+            }
+        }
+        return create(normalized, parentId, userId, false);
+    }
+
+    private void checkUserDefined(String normalized, Long userId) {
+        if (normalized.length() > MAX_NAME_LENGTH) {
+            throw new RuntimeException("Category name must be at most " + MAX_NAME_LENGTH + " characters");
+        }
+        if (userId != null && snapshot.definedByUser.getOrDefault(userId, 0) >= maxPerUser) {
+            throw new RuntimeException("You can define at most " + maxPerUser + " categories");
+        }
+    }
+
+    public Integer getParentId(Integer id) {
+        return snapshot.parentById.get(id);
+    }
+
+    // The category itself followed by its parent, grandparent, ... (precomputed)
+    public int[] getAncestry(Integer id) {
+        int[] ancestry = snapshot.ancestry.get(id);
+        return ancestry != null ? ancestry : new int[]{id};
+    }
+
+    public String getName(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String name = snapshot.namesById.get(id);
+        if (name == null) {
+            reloadOnMiss();
+            name = snapshot.namesById.get(id);
+        }
+        return name;
+    }
+
+    public Map<Integer, String> getAll() {
+        return snapshot.namesById;
+    }
+
+    // Runs in its own transaction so a duplicate insert never poisons the caller's transaction
+    private synchronized Integer create(String normalized, Integer parentId, Long userId, boolean builtIn) {
+        Integer existing = snapshot.idsByName.get(normalized);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                Category category = new Category();
+                category.setName(normalized);
+                category.setParentId(parentId);
+                category.setBuiltIn(builtIn);
+                category.setCreatedBy(userId);
+                categoryRepository.saveAndFlush(category);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another instance or service - just reload
+        }
+
+        reload();
+        return snapshot.idsByName.get(normalized);
+    }
+
+    // Unknown names/ids trigger at most one reload per interval
+    private void reloadOnMiss() {
+        if (System.currentTimeMillis() - lastReloadMillis > MISS_RELOAD_INTERVAL_MS) {
+            reload();
+        }
+    }
+
+    private void reload() {
+        lastReloadMillis = System.currentTimeMillis();
+
+        List<Category> categories = newTransaction.execute(status -> categoryRepository.findAll());
+
+        Map<String, Integer> idsByName = new HashMap<>();
+        Map<Integer, String> namesById = new HashMap<>();
+        Map<Integer, Integer> parentById = new HashMap<>();
+        Map<Long, Integer> definedByUser = new HashMap<>();
+        for (Category category : categories) {
+            idsByName.put(category.getName(), category.getId());
+            namesById.put(category.getId(), category.getName());
+            if (category.getParentId() != null) {
+                parentById.put(category.getId(), category.getParentId());
+            }
+            if (category.getCreatedBy() != null) {
+                definedByUser.merge(category.getCreatedBy(), 1, Integer::sum);
+            }
+        }
+
+        // Ancestor closure: self first, then each parent up to the root
+        Map<Integer, int[]> ancestry = new HashMap<>();
+        for (Integer id : namesById.keySet()) {
+            int[] chain = new int[MAX_DEPTH];
+            int depth = 0;
+            for (Integer current = id; current != null && depth < MAX_DEPTH; current = parentById.get(current)) {
+                chain[depth++] = current;
+            }
+            ancestry.put(id, Arrays.copyOf(chain, depth));
+        }
+
+        snapshot = new Snapshot(Map.copyOf(idsByName), Map.copyOf(namesById),
+                Map.copyOf(parentById), Map.copyOf(ancestry), Map.copyOf(definedByUser));
+    }
+
+    private static final class Snapshot {
+        final Map<String, Integer> idsByName;
+        final Map<Integer, String> namesById;
+        final Map<Integer, Integer> parentById;
+        final Map<Integer, int[]> ancestry;
+        final Map<Long, Integer> definedByUser;  // user-defined categories per creator
+
+        Snapshot(Map<String, Integer> idsByName, Map<Integer, String> namesById,
+                 Map<Integer, Integer> parentById, Map<Integer, int[]> ancestry,
+                 Map<Long, Integer> definedByUser) {
+            this.idsByName = idsByName;
+            this.namesById = namesById;
+            this.parentById = parentById;
+            this.ancestry = ancestry;
+            this.definedByUser = definedByUser;
+        }
+    }
+}
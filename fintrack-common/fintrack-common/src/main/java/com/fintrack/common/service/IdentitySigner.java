@@ -0,0 +1,66 @@
+package com.fintrack.common.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Locale;
+
+// Signs and checks the identity headers the gateway forwards, so downstream services
+// can trust X-User-Id / X-User-Email without calling auth-service. Signature is
+// HMAC-SHA256(gateway.identity.secret, userId|email|timestamp|METHOD|path), base64url:
+// the headers are only valid for the request they were issued for, so a captured set
+// cannot be replayed against another endpoint.
+@Component
+public class IdentitySigner {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String TIMESTAMP_HEADER = "X-User-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+
+    @Value("${gateway.identity.secret}")
+    private String secret;
+
+    private SecretKeySpec key;
+
+    // Mac instances are not thread-safe
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    // path is the raw (still encoded) request path, without the query string
+    public String sign(String userId, String email, String timestamp, String method, String path) {
+        String signed = userId + "|" + email + "|" + timestamp + "|" + method.toUpperCase(Locale.ROOT) + "|" + path;
+        byte[] payload = signed.getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(macs.get().doFinal(payload));
+    }
+
+    // Constant-time comparison against the expected signature
+    public boolean verify(String userId, String email, String timestamp, String method, String path,
+                          String signature) {
+        try {
+            byte[] expected = Base64.getUrlDecoder().decode(sign(userId, email, timestamp, method, path));
+            return MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature));
+        } catch (IllegalArgumentException e) {
+            return false;  // Not base64url
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fintrack.common.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Rules are validated when set, then matched by exact target (gateway route ids)
+// or by longest path prefix (servlet services), with "*" as the fallback
+class FaultInjectorTest {
+
+    private final FaultInjector faultInjector = new FaultInjector();
+
+    @Test
+    void nonStandardStatusWithinRangeIsAccepted() {
+        faultInjector.setRule("budget-service", errorRule(599));
+        assertEquals(599, faultInjector.decide("budget-service").getErrorStatus());
+    }
+
+    @Test
+    void statusOutsideHttpRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> faultInjector.setRule("*", errorRule(99)));
+        assertThrows(IllegalArgumentException.class, () -> faultInjector.setRule("*", errorRule(600)));
+        assertTrue(faultInjector.getRules().isEmpty());
+    }
+
+    @Test
+    void ratesOutsideZeroToOneAreRejected() {
+        FaultInjector.Rule negative = new FaultInjector.Rule();
+        negative.setLatencyRate(-0.1);
+        assertThrows(IllegalArgumentException.class, () -> faultInjector.setRule("*", negative));
+
+        FaultInjector.Rule aboveOne = new FaultInjector.Rule();
+        aboveOne.setErrorRate(1.5);
+        assertThrows(IllegalArgumentException.class, () -> faultInjector.setRule("*", aboveOne));
+
+        FaultInjector.Rule notANumber = new FaultInjector.Rule();
+        notANumber.setResetRate(Double.NaN);
+        assertThrows(IllegalArgumentException.class, () -> faultInjector.setRule("*", notANumber));
+    }
+
+    @Test
+    void unknownDistributionAndNegativeLatencyAreRejected() {
+        FaultInjector.Rule distribution = new FaultInjector.Rule();
+        distribution.setDistribution("GAUSSIAN");
+        assertThrows(IllegalArgumentException.class, () -> faultInjector.setRule("*", distribution));
+
+        FaultInjector.Rule latency = new FaultInjector.Rule();
+        latency.setLatencyMs(-1);
+        assertThrows(IllegalArgumentException.class, () -> faultInjector.setRule("*", latency));
+    }
+
+    @Test
+    void longestPathPrefixWinsOverAllTargets() {
+        faultInjector.setRule(FaultInjector.ALL_TARGETS, errorRule(500));
+        faultInjector.setRule("/api/budgets", errorRule(502));
+        faultInjector.setRule("/api/budgets/check-transaction", errorRule(504));
+
+        assertEquals(504, faultInjector.decideForPath("/api/budgets/check-transaction").getErrorStatus());
+        assertEquals(502, faultInjector.decideForPath("/api/budgets/summary").getErrorStatus());
+        assertEquals(500, faultInjector.decideForPath("/api/transactions").getErrorStatus());
+    }
+
+    @Test
+    void targetsMatchExactly() {
+        faultInjector.setRule("budget-service", errorRule(502));
+        assertEquals(502, faultInjector.decide("budget-service").getErrorStatus());
+        assertNull(faultInjector.decide("budget-service-v2"));
+    }
+
+    private static FaultInjector.Rule errorRule(int status) {
+        FaultInjector.Rule rule = new FaultInjector.Rule();
+        rule.setErrorRate(1.0);
+        rule.setErrorStatus(status);
+        return rule;
+    }
+}
@@ -0,0 +1,59 @@
+package com.fintrack.common.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// In-flight accounting: every started request is released exactly once, whether it
+// completes or is cancelled and released by the caller
+class InstanceLoadTrackerTest {
+
+    private final InstanceLoadTracker tracker = new InstanceLoadTracker();
+    private final ServiceInstance instance =
+            new DefaultServiceInstance("a:8081", "budget-service", "a", 8081, false);
+
+    @Test
+    void releaseIsIdempotent() {
+        Response<ServiceInstance> lbResponse = start();
+        assertEquals(1, tracker.statsFor(instance).getInFlight());
+
+        tracker.release(lbResponse);
+        tracker.release(lbResponse);
+        assertEquals(0, tracker.statsFor(instance).getInFlight());
+    }
+
+    @Test
+    void concurrentRequestsToOneInstanceAreCountedSeparately() {
+        // DefaultResponse equality is by instance; the tracker must not merge them
+        Response<ServiceInstance> first = start();
+        Response<ServiceInstance> second = start();
+        assertEquals(2, tracker.statsFor(instance).getInFlight());
+
+        tracker.release(first);
+        assertEquals(1, tracker.statsFor(instance).getInFlight());
+        tracker.release(second);
+        assertEquals(0, tracker.statsFor(instance).getInFlight());
+    }
+
+    @Test
+    void unknownResponseIsIgnored() {
+        start();
+        tracker.release(new DefaultResponse(instance));
+        tracker.release(null);
+        assertEquals(1, tracker.statsFor(instance).getInFlight());
+    }
+
+    private Response<ServiceInstance> start() {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        tracker.onStartRequest(request, lbResponse);
+        return lbResponse;
+    }
+}
@@ -0,0 +1,96 @@
+package com.fintrack.common.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// chooseFrom against a tracker whose per-instance load is set by the test
+class LeastLoadedLoadBalancerTest {
+
+    private final StubTracker tracker = new StubTracker();
+    private final LeastLoadedLoadBalancer balancer = new LeastLoadedLoadBalancer(null, tracker);
+
+    private final ServiceInstance a = instance("a", 8081);
+    private final ServiceInstance b = instance("b", 8082);
+
+    @Test
+    void noInstancesGivesEmptyResponse() {
+        assertFalse(balancer.chooseFrom(List.of()).hasServer());
+    }
+
+    @Test
+    void singleInstanceIsAlwaysChosen() {
+        tracker.busy(a, 50);
+        assertEquals(a, balancer.chooseFrom(List.of(a)).getServer());
+    }
+
+    @Test
+    void lessLoadedOfTheTwoSamplesWins() {
+        tracker.latency(a, 10).latency(b, 10).busy(a, 5);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(b, balancer.chooseFrom(List.of(a, b)).getServer());
+        }
+    }
+
+    @Test
+    void slowerInstanceLosesAtEqualInFlight() {
+        tracker.latency(a, 5).latency(b, 200).busy(a, 1).busy(b, 1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a, balancer.chooseFrom(List.of(a, b)).getServer());
+        }
+    }
+
+    @Test
+    void ejectedInstanceIsSkippedEvenWhenIdle() {
+        tracker.latency(b, 10).busy(b, 20).eject(a);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(b, balancer.chooseFrom(List.of(a, b)).getServer());
+        }
+    }
+
+    @Test
+    void allEjectedStillReturnsAnInstance() {
+        tracker.eject(a).eject(b);
+        Response<ServiceInstance> response = balancer.chooseFrom(List.of(a, b));
+        assertTrue(response.hasServer());
+    }
+
+    private static ServiceInstance instance(String host, int port) {
+        return new DefaultServiceInstance(host + ":" + port, "budget-service", host, port, false);
+    }
+
+    private static final class StubTracker extends InstanceLoadTracker {
+        private final Map<ServiceInstance, InstanceStats> stats = new HashMap<>();
+
+        @Override
+        public InstanceStats statsFor(ServiceInstance instance) {
+            return stats.computeIfAbsent(instance, i -> new InstanceStats());
+        }
+
+        StubTracker busy(ServiceInstance instance, int inFlight) {
+            for (int i = 0; i < inFlight; i++) {
+                statsFor(instance).incrementInFlight();
+            }
+            return this;
+        }
+
+        StubTracker latency(ServiceInstance instance, double latencyMs) {
+            statsFor(instance).recordLatency(latencyMs, 1.0);
+            return this;
+        }
+
+        StubTracker eject(ServiceInstance instance) {
+            statsFor(instance).recordOutcome(true, 1, 60_000);
+            return this;
+        }
+    }
+}
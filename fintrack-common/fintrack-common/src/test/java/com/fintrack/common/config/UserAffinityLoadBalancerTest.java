@@ -0,0 +1,134 @@
+package com.fintrack.common.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Consistent hashing ring: users move only when their arc changes owner, and the
+// bounded-load cap sends a user past an overloaded (or ejected) home instance
+class UserAffinityLoadBalancerTest {
+
+    private static final int USERS = 10_000;
+
+    private final InstanceLoadTracker tracker = new InstanceLoadTracker();
+    private final UserAffinityLoadBalancer balancer = new UserAffinityLoadBalancer(null, tracker, 100, 1.25);
+
+    @Test
+    void sameUserSameInstance() {
+        List<ServiceInstance> instances = instances(5);
+        ServiceInstance home = choose("42", instances);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(home, choose("42", instances));
+        }
+    }
+
+    @Test
+    void addingAnInstanceOnlyMovesUsersToIt() {
+        List<ServiceInstance> before = instances(5);
+        List<ServiceInstance> after = instances(6);
+        ServiceInstance added = after.get(5);
+
+        Map<String, ServiceInstance> homes = homes(before);
+        int moved = 0;
+        for (Map.Entry<String, ServiceInstance> entry : homes.entrySet()) {
+            ServiceInstance now = choose(entry.getKey(), after);
+            if (!now.equals(entry.getValue())) {
+                assertEquals(added, now, "user " + entry.getKey() + " moved between old instances");
+                moved++;
+            }
+        }
+
+        // Ideal is 1/6 of the users; modulo hashing would move about 5/6
+        double movedFraction = (double) moved / USERS;
+        assertTrue(movedFraction > 0.08 && movedFraction < 0.26, "moved " + movedFraction);
+    }
+
+    @Test
+    void removingAnInstanceOnlyMovesItsUsers() {
+        List<ServiceInstance> before = instances(5);
+        ServiceInstance removed = before.get(2);
+        List<ServiceInstance> after = new ArrayList<>(before);
+        after.remove(removed);
+
+        Map<String, ServiceInstance> homes = homes(before);
+        for (Map.Entry<String, ServiceInstance> entry : homes.entrySet()) {
+            ServiceInstance now = choose(entry.getKey(), after);
+            if (!entry.getValue().equals(removed)) {
+                assertEquals(entry.getValue(), now, "user " + entry.getKey() + " moved without cause");
+            }
+        }
+    }
+
+    @Test
+    void overloadedHomeIsPassedOverForTheNextInstance() {
+        List<ServiceInstance> instances = instances(3);
+        ServiceInstance home = choose("42", instances);
+
+        // 10 in flight on home, 0 elsewhere: cap is ceil(1.25 x 11 / 3) = 5
+        busy(home, 10);
+        ServiceInstance chosen = choose("42", instances);
+        assertNotEquals(home, chosen);
+        assertEquals(0, tracker.statsFor(chosen).getInFlight());
+
+        // The spill-over target is stable too (next owner on the ring)
+        assertEquals(chosen, choose("42", instances));
+    }
+
+    @Test
+    void homeWithinTheCapKeepsItsUsers() {
+        List<ServiceInstance> instances = instances(3);
+        ServiceInstance home = choose("42", instances);
+
+        // 4 in flight everywhere: cap is ceil(1.25 x 13 / 3) = 6
+        instances.forEach(instance -> busy(instance, 4));
+        assertEquals(home, choose("42", instances));
+    }
+
+    @Test
+    void ejectedHomeIsSkipped() {
+        List<ServiceInstance> instances = instances(3);
+        ServiceInstance home = choose("42", instances);
+
+        tracker.statsFor(home).recordOutcome(true, 1, 60_000);
+        ServiceInstance chosen = choose("42", instances);
+        assertNotEquals(home, chosen);
+        assertFalse(tracker.statsFor(chosen).isEjected(System.currentTimeMillis()));
+    }
+
+    private ServiceInstance choose(String userId, List<ServiceInstance> instances) {
+        return balancer.chooseFor(userId, instances).getServer();
+    }
+
+    private Map<String, ServiceInstance> homes(List<ServiceInstance> instances) {
+        Map<String, ServiceInstance> homes = new HashMap<>();
+        for (int user = 1; user <= USERS; user++) {
+            homes.put(String.valueOf(user), choose(String.valueOf(user), instances));
+        }
+        return homes;
+    }
+
+    private void busy(ServiceInstance instance, int inFlight) {
+        for (int i = 0; i < inFlight; i++) {
+            tracker.statsFor(instance).incrementInFlight();
+        }
+    }
+
+    private static List<ServiceInstance> instances(int count) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            instances.add(new DefaultServiceInstance("10.0.0." + i + ":8082", "budget-service",
+                    "10.0.0." + i, 8082, false));
+        }
+        return instances;
+    }
+}
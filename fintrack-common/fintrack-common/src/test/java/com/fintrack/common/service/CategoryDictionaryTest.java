@@ -0,0 +1,92 @@
+package com.fintrack.common.service;
+
+import com.fintrack.common.entities.Category;
+import com.fintrack.common.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Free-form names keep working: unknown names become user-defined categories of the
+// requesting user (bounded per user), spelling variants share one id
+class CategoryDictionaryTest {
+
+    private static final int MAX_PER_USER = 3;
+
+    private final List<Category> table = new ArrayList<>();
+    private final CategoryDictionary dictionary = new CategoryDictionary();
+
+    @BeforeEach
+    void setUp() {
+        CategoryRepository repository = mock(CategoryRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(table));
+        when(repository.saveAndFlush(any(Category.class))).thenAnswer(invocation -> insert(invocation.getArgument(0)));
+
+        ReflectionTestUtils.setField(dictionary, "categoryRepository", repository);
+        ReflectionTestUtils.setField(dictionary, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(dictionary, "maxPerUser", MAX_PER_USER);
+        dictionary.init();
+    }
+
+    @Test
+    void systemCategoriesAreBuiltIn() {
+        Integer food = dictionary.findId("FOOD");
+        assertEquals(food, dictionary.resolveId(" food ", 1L));
+        assertEquals(food, dictionary.getParentId(dictionary.findId("GROCERIES")));
+    }
+
+    @Test
+    void unknownNameIsDefinedForTheUser() {
+        assertNull(dictionary.findId("Pet Care"));
+
+        Integer id = dictionary.resolveId("Pet Care", 7L);
+        assertEquals("PET_CARE", dictionary.getName(id));
+        assertEquals(id, dictionary.resolveId("pet-care", 8L));
+
+        Category row = table.stream().filter(c -> c.getId().equals(id)).findFirst().orElseThrow();
+        assertEquals(7L, row.getCreatedBy());
+        assertFalse(row.getBuiltIn());
+        assertNull(row.getParentId());
+    }
+
+    @Test
+    void userDefinedCategoriesAreBoundedPerUser() {
+        for (int i = 0; i < MAX_PER_USER; i++) {
+            dictionary.resolveId("HOBBY_" + i, 9L);
+        }
+        assertThrows(RuntimeException.class, () -> dictionary.resolveId("HOBBY_X", 9L));
+        assertThrows(RuntimeException.class, () -> dictionary.createCategory("HOBBY_Y", "FOOD", 9L));
+
+        // Existing names stay usable, and other users are not affected
+        assertEquals(dictionary.findId("HOBBY_0"), dictionary.resolveId("hobby 0", 9L));
+        assertNotEquals(null, dictionary.resolveId("HOBBY_X", 10L));
+    }
+
+    @Test
+    void overlongNameIsRejected() {
+        assertThrows(RuntimeException.class, () -> dictionary.resolveId("X".repeat(65), 1L));
+        assertThrows(RuntimeException.class, () -> dictionary.resolveId("  ", 1L));
+    }
+
+    private Category insert(Category category) {
+        if (table.stream().anyMatch(c -> c.getName().equals(category.getName()))) {
+            throw new DataIntegrityViolationException("Duplicate category " + category.getName());
+        }
+        category.setId(table.size() + 1);
+        table.add(category);
+        return category;
+    }
+}
@@ -1,13 +1,19 @@
 package com.fintrack.transaction_service;
 
+import com.fintrack.common.config.CategoryConfig;
+import com.fintrack.common.config.FaultInjectionConfig;
+import com.fintrack.common.config.GatewayIdentityConfig;
+import com.fintrack.common.config.LoadBalancerConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient  // For Eureka registration
 @EnableFeignClients     // For Feign clients
+@Import({CategoryConfig.class, GatewayIdentityConfig.class, LoadBalancerConfig.class, FaultInjectionConfig.class})  // Shared code (fintrack-common)
 
 
 public class TransactionServiceApplication {
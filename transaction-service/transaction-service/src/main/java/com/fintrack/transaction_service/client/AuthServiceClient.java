@@ -8,6 +8,8 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 @FeignClient(
         name = "auth-service",
         url = "${feign.client.auth-service.url:}",
@@ -21,4 +23,8 @@ public interface AuthServiceClient {
 
     @PostMapping("/api/auth/validate-user")
     ValidationResponse validateUser(@RequestBody ValidationRequest request);
+
+    // One round trip for many tokens; responses are in request order
+    @PostMapping("/api/auth/validate-batch")
+    List<ValidationResponse> validateBatch(@RequestBody List<ValidationRequest> requests);
 }
@@ -4,6 +4,9 @@ package com.fintrack.transaction_service.client;
 import com.fintrack.transaction_service.entities.transaction_service.entities.ValidationRequest;
 import com.fintrack.transaction_service.entities.ValidationResponse;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class AuthServiceFallback implements AuthServiceClient {
 
     @Override
@@ -21,4 +24,13 @@ public class AuthServiceFallback implements AuthServiceClient {
         response.setError("Auth service temporarily unavailable");
         return response;
     }
+
+    @Override
+    public List<ValidationResponse> validateBatch(List<ValidationRequest> requests) {
+        List<ValidationResponse> responses = new ArrayList<>(requests.size());
+        for (ValidationRequest request : requests) {
+            responses.add(validateToken(request));
+        }
+        return responses;
+    }
 }
@@ -1,16 +1,30 @@
 package com.fintrack.transaction_service.config;
 
+import com.fintrack.common.config.GatewayIdentityVerifier;
+import com.fintrack.common.entities.GatewayIdentity;
+import com.fintrack.common.service.IdentitySigner;
 import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.net.URI;
 
 @Configuration
 public class FeignConfig {
 
+    // Request attribute holding the identity auth-service validated for a direct (non-gateway) call
+    public static final String VALIDATED_IDENTITY_ATTR = FeignConfig.class.getName() + ".validatedIdentity";
+
+    @Autowired
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
+    @Autowired
+    private IdentitySigner identitySigner;
+
     @Bean
     public RequestInterceptor requestInterceptor() {
 
@@ -28,6 +42,25 @@ public class FeignConfig {
                     requestTemplate.header("Authorization", authHeader);
                 }
 
+                // Identity the gateway signed for this request - or, on a direct call, the one
+                // auth-service validated - re-signed for the outgoing call (signatures are bound
+                // to method and path) so budget-service can verify it; also lets user-affinity
+                // load balancing route by user
+                GatewayIdentity identity = gatewayIdentityVerifier.verify(request);
+                if (identity == null) {
+                    identity = (GatewayIdentity) request.getAttribute(VALIDATED_IDENTITY_ATTR);
+                }
+                if (identity != null) {
+                    String userId = identity.getUserId().toString();
+                    String timestamp = String.valueOf(System.currentTimeMillis());
+                    String path = URI.create(requestTemplate.path()).getRawPath();
+                    requestTemplate.header(IdentitySigner.USER_ID_HEADER, userId);
+                    requestTemplate.header(IdentitySigner.USER_EMAIL_HEADER, identity.getEmail());
+                    requestTemplate.header(IdentitySigner.TIMESTAMP_HEADER, timestamp);
+                    requestTemplate.header(IdentitySigner.SIGNATURE_HEADER, identitySigner.sign(
+                            userId, identity.getEmail(), timestamp, requestTemplate.method(), path));
+                }
+
                 // You might also need to add content-type
                 requestTemplate.header("X-Service-Auth", "transaction-service-secret-key");
                 requestTemplate.header("Content-Type", "application/json");
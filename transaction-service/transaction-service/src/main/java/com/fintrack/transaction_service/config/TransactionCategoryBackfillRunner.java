@@ -0,0 +1,48 @@
+package com.fintrack.transaction_service.config;
+
+import com.fintrack.common.config.CategoryBackfillRunner;
+import com.fintrack.transaction_service.entities.Transaction;
+import com.fintrack.transaction_service.repositories.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Assigns dictionary ids to transactions created before categories were dictionary-encoded
+@Component
+public class TransactionCategoryBackfillRunner extends CategoryBackfillRunner<Transaction> {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Override
+    protected List<Transaction> findLegacyRows() {
+        return transactionRepository.findByCategoryIdIsNull();
+    }
+
+    @Override
+    protected String getCategory(Transaction transaction) {
+        return transaction.getCategory();
+    }
+
+    @Override
+    protected Long getUserId(Transaction transaction) {
+        return transaction.getUserId();
+    }
+
+    @Override
+    protected void setCategory(Transaction transaction, Integer categoryId, String name) {
+        transaction.setCategoryId(categoryId);
+        transaction.setCategory(name);
+    }
+
+    @Override
+    protected void saveAll(List<Transaction> transactions) {
+        transactionRepository.saveAll(transactions);
+    }
+
+    @Override
+    protected String rowName() {
+        return "transactions";
+    }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_category", columnList = "user_id, category_id")
+})
 public class Transaction {
 
     @Id
@@ -19,6 +21,9 @@ public class Transaction {
     @Column(nullable = false)
     private String category; // "INCOME", "FOOD", "TRANSPORT", "ENTERTAINMENT", "BILLS"
 
+    @Column(name = "category_id", columnDefinition = "SMALLINT")
+    private Integer categoryId;  // Id in the shared categories dictionary
+
     @Column(nullable = false)
     private LocalDateTime date;
 
@@ -66,6 +71,14 @@ public class Transaction {
         this.category = category;
     }
 
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
     public LocalDateTime getDate() {
         return date;
     }
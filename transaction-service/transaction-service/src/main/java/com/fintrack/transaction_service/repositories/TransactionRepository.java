@@ -11,6 +11,7 @@ import java.util.List;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByUserId(Long userId);
-    List<Transaction> findByUserIdAndCategory(Long userId, String category);
+    List<Transaction> findByUserIdAndCategoryId(Long userId, Integer categoryId);
+    List<Transaction> findByCategoryIdIsNull();
     List<Transaction> findByUserIdAndDateBetween(Long userId, LocalDateTime start, LocalDateTime end);
 }
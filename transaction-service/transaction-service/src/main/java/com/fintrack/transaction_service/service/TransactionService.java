@@ -1,18 +1,25 @@
 package com.fintrack.transaction_service.service;
 
+import com.fintrack.common.config.GatewayIdentityVerifier;
+import com.fintrack.common.entities.GatewayIdentity;
+import com.fintrack.common.service.CategoryDictionary;
 import com.fintrack.transaction_service.client.AuthServiceClient;
 import com.fintrack.transaction_service.client.BudgetServiceClient;
+import com.fintrack.transaction_service.config.FeignConfig;
 import com.fintrack.transaction_service.entities.*;
 import com.fintrack.transaction_service.entities.transaction_service.entities.ValidationRequest;
 import com.fintrack.transaction_service.repositories.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class TransactionService {
@@ -26,18 +33,28 @@ public class TransactionService {
     @Autowired
     private BudgetServiceClient budgetServiceClient;
 
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
     @Transactional
     public TransactionResponse createTransaction(TransactionRequest request, String authToken) {
-        // 1. Validate token with auth service
+        // 1. Validate token (gateway identity, else auth service)
         ValidationRequest validationRequest = new ValidationRequest();
         validationRequest.setToken(authToken);
 
-        ValidationResponse validationResponse = authServiceClient.validateToken(validationRequest);
+        ValidationResponse validationResponse = validateToken(validationRequest);
 
         if (!validationResponse.getValid()) {
             throw new RuntimeException("Invalid or expired token: " + validationResponse.getError());
         }
 
+        // Category names are accepted in any case/spelling form, stored as dictionary ids
+        Integer categoryId = categoryDictionary.resolveId(request.getCategory(), request.getUserId());
+        request.setCategory(categoryDictionary.getName(categoryId));
+
         // 2. Check transaction against budget BEFORE creating (with fallback handling)
         Map<String, Object> budgetCheck = checkBudgetBeforeTransaction(request);
         boolean hasBudget = (boolean) budgetCheck.getOrDefault("hasBudget", false);
@@ -50,6 +67,7 @@ public class TransactionService {
         transaction.setAmount(request.getAmount());
         transaction.setDescription(request.getDescription());
         transaction.setCategory(request.getCategory());
+        transaction.setCategoryId(categoryId);
         transaction.setUserId(request.getUserId());
         transaction.setStatus("COMPLETED");
         transaction.setDate(LocalDateTime.now());
@@ -91,6 +109,7 @@ public class TransactionService {
             Map<String, Object> checkRequest = new HashMap<>();
             checkRequest.put("userId", request.getUserId());
             checkRequest.put("category", request.getCategory());
+            checkRequest.put("categoryId", categoryDictionary.findId(request.getCategory()));
             checkRequest.put("amount", request.getAmount());
 
             return budgetServiceClient.checkTransaction(checkRequest);
@@ -116,6 +135,7 @@ public class TransactionService {
             Map<String, Object> spendingRequest = new HashMap<>();
             spendingRequest.put("userId", request.getUserId());
             spendingRequest.put("category", request.getCategory());
+            spendingRequest.put("categoryId", categoryDictionary.findId(request.getCategory()));
             spendingRequest.put("amount", request.getAmount());
 
             Map<String, Object> result = budgetServiceClient.addSpending(spendingRequest);
@@ -136,7 +156,7 @@ public class TransactionService {
         ValidationRequest validationRequest = new ValidationRequest();
         validationRequest.setToken(authToken);
 
-        ValidationResponse validationResponse = authServiceClient.validateToken(validationRequest);
+        ValidationResponse validationResponse = validateToken(validationRequest);
 
         if (!validationResponse.getValid()) {
             throw new RuntimeException("Invalid or expired token");
@@ -149,20 +169,24 @@ public class TransactionService {
         ValidationRequest validationRequest = new ValidationRequest();
         validationRequest.setToken(authToken);
 
-        ValidationResponse validationResponse = authServiceClient.validateToken(validationRequest);
+        ValidationResponse validationResponse = validateToken(validationRequest);
 
         if (!validationResponse.getValid()) {
             throw new RuntimeException("Invalid or expired token");
         }
 
-        return transactionRepository.findByUserIdAndCategory(userId, category);
+        Integer categoryId = categoryDictionary.findId(category);
+        if (categoryId == null) {
+            return List.of();
+        }
+        return transactionRepository.findByUserIdAndCategoryId(userId, categoryId);
     }
 
     public Transaction getTransactionById(Long id, String authToken) {
         ValidationRequest validationRequest = new ValidationRequest();
         validationRequest.setToken(authToken);
 
-        ValidationResponse validationResponse = authServiceClient.validateToken(validationRequest);
+        ValidationResponse validationResponse = validateToken(validationRequest);
 
         if (!validationResponse.getValid()) {
             throw new RuntimeException("Invalid or expired token");
@@ -176,17 +200,18 @@ public class TransactionService {
         ValidationRequest validationRequest = new ValidationRequest();
         validationRequest.setToken(authToken);
 
-        ValidationResponse validationResponse = authServiceClient.validateToken(validationRequest);
+        ValidationResponse validationResponse = validateToken(validationRequest);
 
         if (!validationResponse.getValid()) {
             throw new RuntimeException("Invalid or expired token");
         }
 
         List<Transaction> transactions = transactionRepository.findByUserId(userId);
+        Integer incomeId = categoryDictionary.findId("INCOME");
 
         return transactions.stream()
                 .mapToDouble(t -> {
-                    if ("INCOME".equals(t.getCategory())) {
+                    if (Objects.equals(incomeId, t.getCategoryId())) {
                         return t.getAmount();
                     } else {
                         return -t.getAmount();
@@ -194,4 +219,28 @@ public class TransactionService {
                 })
                 .sum();
     }
-}
\ No newline at end of file
+
+    // Requests routed through the gateway carry an already verified, signed identity;
+    // only direct calls still go to auth-service
+    private ValidationResponse validateToken(ValidationRequest validationRequest) {
+        GatewayIdentity gatewayIdentity = gatewayIdentityVerifier.currentIdentity();
+        if (gatewayIdentity != null) {
+            ValidationResponse identity = new ValidationResponse();
+            identity.setValid(true);
+            identity.setUserId(gatewayIdentity.getUserId());
+            identity.setUsername(gatewayIdentity.getEmail());
+            return identity;
+        }
+
+        // Direct call (not through the gateway): auth-service validates the token, and the
+        // user it vouches for is kept on the request so FeignConfig signs it for budget-service
+        ValidationResponse validated = authServiceClient.validateToken(validationRequest);
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes != null && Boolean.TRUE.equals(validated.getValid())
+                && validated.getUserId() != null && validated.getUsername() != null) {
+            attributes.getRequest().setAttribute(FeignConfig.VALIDATED_IDENTITY_ATTR,
+                    new GatewayIdentity(validated.getUserId(), validated.getUsername()));
+        }
+        return validated;
+    }
+}
@@ -0,0 +1,95 @@
+package com.fintrack.transaction_service.config;
+
+import com.fintrack.common.config.GatewayIdentityVerifier;
+import com.fintrack.common.entities.GatewayIdentity;
+import com.fintrack.common.service.IdentitySigner;
+import feign.Request;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Calls to budget-service must carry a signed identity whether the incoming request came
+// through the gateway or directly (validated by auth-service) - budget-service answers
+// 401 to an unsigned call and budget tracking would silently stop
+class FeignConfigTest {
+
+    private final IdentitySigner identitySigner = new IdentitySigner();
+    private final GatewayIdentityVerifier gatewayIdentityVerifier = new GatewayIdentityVerifier();
+    private final FeignConfig feignConfig = new FeignConfig();
+    private final MockHttpServletRequest incoming = new MockHttpServletRequest("POST", "/api/transactions");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(identitySigner, "secret", "feignConfigTestSecret");
+        identitySigner.init();
+        ReflectionTestUtils.setField(gatewayIdentityVerifier, "identitySigner", identitySigner);
+        ReflectionTestUtils.setField(gatewayIdentityVerifier, "maxAgeMs", 60_000L);
+        ReflectionTestUtils.setField(feignConfig, "identitySigner", identitySigner);
+        ReflectionTestUtils.setField(feignConfig, "gatewayIdentityVerifier", gatewayIdentityVerifier);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(incoming));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void directCallSignsTheIdentityValidatedByAuthService() {
+        incoming.setAttribute(FeignConfig.VALIDATED_IDENTITY_ATTR, new GatewayIdentity(42L, "direct@example.com"));
+
+        RequestTemplate outgoing = budgetCheck();
+
+        assertSignedFor(outgoing, "42", "direct@example.com");
+    }
+
+    @Test
+    void gatewayCallIsReSignedForTheOutgoingRequest() {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        incoming.addHeader(IdentitySigner.USER_ID_HEADER, "7");
+        incoming.addHeader(IdentitySigner.USER_EMAIL_HEADER, "gateway@example.com");
+        incoming.addHeader(IdentitySigner.TIMESTAMP_HEADER, timestamp);
+        incoming.addHeader(IdentitySigner.SIGNATURE_HEADER,
+                identitySigner.sign("7", "gateway@example.com", timestamp, "POST", "/api/transactions"));
+
+        RequestTemplate outgoing = budgetCheck();
+
+        assertSignedFor(outgoing, "7", "gateway@example.com");
+    }
+
+    @Test
+    void unvalidatedCallCarriesNoIdentity() {
+        RequestTemplate outgoing = budgetCheck();
+
+        assertTrue(outgoing.headers().getOrDefault(IdentitySigner.SIGNATURE_HEADER, List.of()).isEmpty());
+    }
+
+    private RequestTemplate budgetCheck() {
+        RequestTemplate template = new RequestTemplate();
+        template.method(Request.HttpMethod.POST);
+        template.uri("/api/budgets/check-transaction");
+        feignConfig.requestInterceptor().apply(template);
+        return template;
+    }
+
+    private void assertSignedFor(RequestTemplate outgoing, String userId, String email) {
+        assertEquals(userId, header(outgoing, IdentitySigner.USER_ID_HEADER));
+        assertEquals(email, header(outgoing, IdentitySigner.USER_EMAIL_HEADER));
+        assertTrue(identitySigner.verify(userId, email, header(outgoing, IdentitySigner.TIMESTAMP_HEADER),
+                "POST", "/api/budgets/check-transaction", header(outgoing, IdentitySigner.SIGNATURE_HEADER)));
+    }
+
+    private static String header(RequestTemplate template, String name) {
+        return template.headers().get(name).iterator().next();
+    }
+}